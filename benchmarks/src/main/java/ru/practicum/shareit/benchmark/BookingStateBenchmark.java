@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-state dispatch of BookingServiceImpl, for owners and bookers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingStateBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    @Param({"20"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+
+    @Setup
+    public void setUp() {
+        context = ServerContext.start();
+        bookingService = context.getBean(BookingService.class);
+
+        Seeder seeder = new Seeder(context);
+        User owner = seeder.user();
+        User booker = seeder.user();
+        List<Item> items = seeder.items(owner, 10);
+        seeder.bookings(items, booker, 200);
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getAllBookingsForOwner() {
+        return bookingService.getAllBookingsForOwner(ownerId, state, 0, size, null);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getAllBookingsForUser() {
+        return bookingService.getAllBookingsForUser(bookerId, state, 0, size, null);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@code rows} new entities in one saveAll transaction, as imports and bulk booking flows do.
+ * batchSize=0 turns JDBC batching off, so each run compares batching with one round-trip per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"0", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        context = ServerContext.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        Seeder seeder = new Seeder(context);
+        owner = seeder.user();
+        booker = seeder.user();
+        item = seeder.items(owner, 1).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> insertItems() {
+        List<Item> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(Item.builder()
+                    .name("imported " + i)
+                    .description("bulk inserted item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        return itemRepository.saveAll(items);
+    }
+
+    @Benchmark
+    public List<Booking> insertBookings() {
+        LocalDateTime first = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = first.plusHours(i);
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start)
+                    .end(start.plusMinutes(30))
+                    .status(Status.WAITING)
+                    .build());
+        }
+        return bookingRepository.saveAll(bookings);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /items/search with each ItemSearchEngine. The full-text engine needs Postgres:
+ * run with -p engine=full-text -Dshareit.benchmark.profile=default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {
+            "drill", "saw", "hammer", "ladder", "tent", "kayak", "camera", "tripod",
+            "projector", "speaker", "bicycle", "helmet", "scooter", "sander", "grinder", "vacuum"};
+
+    @Param({"like", "in-memory"})
+    public String engine;
+
+    @Param({"10000"})
+    public int catalogue;
+
+    @Param({"kayak", "cordless drill"})
+    public String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        context = ServerContext.start("shareit.search.engine=" + engine);
+        itemService = context.getBean(ItemService.class);
+
+        User owner = new Seeder(context).user();
+        long ownerId = owner.getId();
+        for (int i = 0; i < catalogue; i++) {
+            String name = WORDS[i % WORDS.length] + " " + i;
+            String description = (i % 3 == 0 ? "cordless " : "") + WORDS[(i * 7) % WORDS.length] + " for rent";
+            itemService.addItem(ItemDto.builder()
+                    .name(name)
+                    .description(description)
+                    .available(i % 10 != 0)
+                    .build(), ownerId);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByText() {
+        return itemService.searchItemsByText(text, 0, 20);
+    }
+}
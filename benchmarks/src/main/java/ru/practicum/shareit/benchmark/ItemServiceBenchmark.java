@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The owner's item list. Last and next bookings come from one query returning at most two rows per item,
+ * so throughput should stay flat as {@code bookingsPerItem} grows; a drop at 10000 means the
+ * service is loading booking history again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"20"})
+    public int items;
+
+    @Param({"10", "100", "10000"})
+    public int bookingsPerItem;
+
+    @Param({"5"})
+    public int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+
+    @Setup
+    public void setUp() {
+        context = ServerContext.start();
+        itemService = context.getBean(ItemService.class);
+
+        Seeder seeder = new Seeder(context);
+        User owner = seeder.user();
+        User booker = seeder.user();
+        List<Item> ownerItems = seeder.items(owner, items);
+        seeder.bookings(ownerItems, booker, bookingsPerItem);
+        seeder.comments(ownerItems, booker, commentsPerItem);
+        ownerId = owner.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemWithLastAndNextBookingsAndCommentsDto> getItemsForUser() {
+        return itemService.getItemsForUser(ownerId, 0, items);
+    }
+}
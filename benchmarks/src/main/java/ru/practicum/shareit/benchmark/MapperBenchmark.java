@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingLastNextDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private static final User OWNER = User.builder().id(1L).name("owner").email("owner@bench.local").build();
+    private static final User BOOKER = User.builder().id(2L).name("booker").email("booker@bench.local").build();
+
+    private Booking booking;
+    private BookingView bookingView;
+
+    @Setup
+    public void setUp() {
+        booking = booking(item(), 1L, LocalDateTime.now().minusDays(1));
+        bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    @Benchmark
+    public BookingResponseDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingResponseDto toBookingDtoFromView() {
+        return BookingMapper.toBookingDto(bookingView);
+    }
+
+    @Benchmark
+    public ItemWithLastAndNextBookingsAndCommentsDto toItemWithLastNextDatesAndCommentsDto(ItemState state) {
+        return ItemMapper.toItemWithLastNextDatesAndCommentsDto(
+                state.item, state.lastBooking, state.nextBooking, state.commentsDto);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ItemState {
+        @Param({"0", "10"})
+        public int comments;
+
+        private Item item;
+        private BookingLastNextDto lastBooking;
+        private BookingLastNextDto nextBooking;
+        private List<CommentResponseDto> commentsDto;
+
+        @Setup
+        public void setUp() {
+            LocalDateTime now = LocalDateTime.now();
+            item = item();
+            lastBooking = BookingMapper.toBookingLastNextDto(booking(item, 1L, now.minusDays(1)));
+            nextBooking = BookingMapper.toBookingLastNextDto(booking(item, 2L, now.plusDays(2)));
+
+            List<CommentView> itemComments = new ArrayList<>();
+            for (int i = 0; i < comments; i++) {
+                itemComments.add(new CommentView(i, item.getId(), "comment " + i, BOOKER.getName(), now.minusDays(i)));
+            }
+            commentsDto = CommentMapper.toCommentDtoList(itemComments);
+        }
+    }
+
+    private static Item item() {
+        return Item.builder().id(1L).name("drill").description("cordless drill").available(true).owner(OWNER).build();
+    }
+
+    private static Booking booking(Item item, long id, LocalDateTime start) {
+        return Booking.builder().id(id).item(item).booker(BOOKER)
+                .start(start).end(start.plusDays(1)).status(Status.APPROVED).build();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway's RateLimiter under 64 threads. users=1 puts every thread on one bucket's CAS;
+ * more users spread them out. permitsPerSecond=1000000000 admits everything, so each call updates
+ * its bucket; 100 makes almost every call a rejection, which only reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RateLimiterBenchmark {
+    @Param({"1", "64", "100000"})
+    public int users;
+
+    @Param({"1000000000", "100"})
+    public double permitsPerSecond;
+
+    private RateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(permitsPerSecond, 200);
+        for (long userId = 0; userId < users; userId++) {
+            rateLimiter.tryAcquire(userId);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire(ThreadLocalRandom.current().nextInt(users));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the database through the server's repositories.
+ */
+public class Seeder {
+    private static final Status[] STATUSES = {Status.APPROVED, Status.APPROVED, Status.WAITING, Status.REJECTED};
+    private static final AtomicInteger USER_COUNTER = new AtomicInteger();
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    public Seeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.itemRepository = context.getBean(ItemRepository.class);
+        this.bookingRepository = context.getBean(BookingRepository.class);
+        this.commentRepository = context.getBean(CommentRepository.class);
+    }
+
+    public User user() {
+        int n = USER_COUNTER.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name("user" + n)
+                .email("user" + n + "@bench.local")
+                .build());
+    }
+
+    public List<Item> items(User owner, int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(Item.builder()
+                    .name("item " + i)
+                    .description("benchmark item number " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        return itemRepository.saveAll(items);
+    }
+
+    /**
+     * Hourly bookings per item, half of them in the past and half in the future,
+     * with a mix of APPROVED, WAITING and REJECTED statuses.
+     */
+    public void bookings(List<Item> items, User booker, int perItem) {
+        LocalDateTime first = LocalDateTime.now().minusHours(perItem / 2);
+        for (Item item : items) {
+            List<Booking> bookings = new ArrayList<>(perItem);
+            for (int i = 0; i < perItem; i++) {
+                LocalDateTime start = first.plusHours(i);
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .booker(booker)
+                        .start(start)
+                        .end(start.plusMinutes(90))
+                        .status(STATUSES[i % STATUSES.length])
+                        .build());
+            }
+            bookingRepository.saveAll(bookings);
+        }
+    }
+
+    public void comments(List<Item> items, User author, int perItem) {
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(Comment.builder()
+                        .item(item)
+                        .author(author)
+                        .text("comment " + i)
+                        .created(LocalDateTime.now().minusDays(i))
+                        .build());
+            }
+        }
+        commentRepository.saveAll(comments);
+    }
+}
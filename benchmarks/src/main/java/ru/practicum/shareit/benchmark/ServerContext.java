@@ -0,0 +1,34 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.Arrays;
+
+/**
+ * Starts the server's Spring context without the web layer. Uses the H2 test profile
+ * unless -Dshareit.benchmark.profile=default points it at Postgres.
+ */
+public final class ServerContext {
+    private ServerContext() {
+    }
+
+    /**
+     * @param properties {@code name=value} overrides. They are passed as command-line arguments, which win over
+     *                   application.properties and the profile; SpringApplicationBuilder.properties() would only
+     *                   set defaults that every configured value overrides.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        String[] args = Arrays.stream(properties)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles(System.getProperty("shareit.benchmark.profile", "test"))
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run(args);
+    }
+}
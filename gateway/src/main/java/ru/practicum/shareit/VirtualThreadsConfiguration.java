@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling and the application task executor on virtual threads
+ * when {@code shareit.threads.virtual=true}. Virtual threads need Java 21; on an older runtime
+ * startup fails instead of quietly staying on platform threads.
+ * The server has the same class: the two applications are deployed separately and share no module,
+ * and what differs is where their request threads block.
+ * Servlet threads here mostly wait on the server. The HttpComponents pool guards leasing with a lock
+ * rather than {@code synchronized}, so a waiting request unmounts instead of pinning its carrier;
+ * start with {@code -Djdk.tracePinnedThreads=short} to log any pinning that remains.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    "shareit.threads.virtual=true needs Java 21 or later, running on " + Runtime.version(), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -1,42 +1,47 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ValidationException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                         ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(serverUrl + API_PREFIX, transport, responseCache, meterRegistry);
     }
 
-    public ResponseEntity<Object> getBookings(
-            String path, long userId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookings(
+            String path, long userId, String state, Integer from, Integer size, String cursor) {
         BookingState stateParsed = parseBookingState(state);
 
-        Map<String, Object> parameters = Map.of(
-                "state", stateParsed.name(),
-                "from", from,
-                "size", size
-        );
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", stateParsed.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
         return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
 
@@ -51,15 +56,25 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> addBooking(long userId, BookingRequestDto requestDto) {
+    public void exportBookingsForOwner(long userId, String format, HttpServletResponse response) throws IOException {
+        download("/owner/export?format={format}", userId, Map.of("format", format), response);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> addBooking(long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(long userId, Long bookingId) {
+        return get("/{bookingId}", userId, Map.of("bookingId", bookingId));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(long userID, long bookingId, Boolean approved) {
+        return patch("/{bookingId}?approved={approved}", userID,
+                Map.of("bookingId", bookingId, "approved", approved), null);
     }
 
-    public ResponseEntity<Object> approveBooking(long userID, long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userID);
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(long userID, List<Long> bookingIds,
+                                                                     Boolean approved) {
+        return patch("/owner/batch?approved=" + approved, userID, bookingIds);
     }
 }
@@ -6,8 +6,16 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Headers.USER_ID_HEADER;
 
@@ -23,40 +31,58 @@ public class BookingController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(USER_ID_HEADER) Long userID,
+    public CompletableFuture<ResponseEntity<Object>> addBooking(@RequestHeader(USER_ID_HEADER) Long userID,
                                              @Valid @RequestBody BookingRequestDto bookingRequestDto) {
         return bookingClient.addBooking(userID, bookingRequestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(USER_ID_HEADER) Long userID,
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(@RequestHeader(USER_ID_HEADER) Long userID,
                                                  @PathVariable Long bookingId,
                                                  @RequestParam Boolean approved) {
         return bookingClient.approveBooking(userID, bookingId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(
+            @RequestHeader(USER_ID_HEADER) Long userID,
+            @RequestParam Boolean approved,
+            @RequestBody @NotEmpty @Size(max = 500) List<@NotNull Long> bookingIds) {
+        return bookingClient.approveBookings(userID, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) Long userID,
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(@RequestHeader(USER_ID_HEADER) Long userID,
                                                  @PathVariable Long bookingId) {
         return bookingClient.getBookingById(userID, bookingId);
     }
 
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsForUser(
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingsForUser(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(defaultValue = "20") @Min(1) Integer size) {
-        return bookingClient.getBookings("", userId, state, from, size);
+            @RequestParam(defaultValue = "20") @Min(1) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getBookings("", userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsForOwner(
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingsForOwner(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(defaultValue = "20") @Min(1) Integer size) {
-        return bookingClient.getBookings("/owner", userId, state, from, size);
+            @RequestParam(defaultValue = "20") @Min(1) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getBookings("/owner", userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsForOwner(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "ndjson") @Pattern(regexp = "(?i)ndjson|csv") String format,
+            HttpServletResponse response) throws IOException {
+        bookingClient.exportBookingsForOwner(userId, format, response);
     }
-}
\ No newline at end of file
+}
@@ -1,98 +1,172 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.http.HttpEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Every call to the server is timed as {@code gateway.server.requests}, tagged by client, method,
+ * path template and the server's status ({@code IO_ERROR} if there was none).
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final String SERVER_REQUESTS_TIMER = "gateway.server.requests";
+
+    protected final ServerTransport transport;
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+    private final DefaultUriBuilderFactory uriBuilderFactory;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(String baseUrl, ServerTransport transport, ResponseCache responseCache,
+                      MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        HttpHeaders headers = defaultHeaders(userId);
+        String key = ResponseCache.key(uri.toString(), userId);
+        ResponseEntity<Object> cached = responseCache.lookup(key);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+
+        return exchange(HttpMethod.GET, path, uri, headers, null)
+                .thenApply(response -> responseCache.update(key, cached, response))
+                .thenApply(BaseClient::prepareGatewayResponse);
+    }
+
+    /**
+     * Proxies a GET whose body may be too large to buffer, writing it to {@code target} as it arrives.
+     */
+    protected void download(String path, long userId, @Nullable Map<String, Object> parameters,
+                            HttpServletResponse target) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.ALL));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        try {
+            transport.download(expand(path, parameters), headers, target);
+            status = String.valueOf(target.getStatus());
+        } finally {
+            sample.stop(serverRequestsTimer(HttpMethod.GET, path, status));
+        }
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    /**
+     * Streams the body to the server as it is read instead of buffering it first.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType,
+                                                                   Resource body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        return exchange(HttpMethod.POST, path, expand(path, null), headers, body)
+                .thenApply(BaseClient::prepareGatewayResponse);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return exchange(method, path, expand(path, parameters), defaultHeaders(userId), body)
+                .thenApply(BaseClient::prepareGatewayResponse);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path, URI uri,
+                                                               HttpHeaders headers, @Nullable Object body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<ResponseEntity<Object>> response;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            response = transport.exchange(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            sample.stop(serverRequestsTimer(method, path, "IO_ERROR"));
+            throw e;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return response.whenComplete((result, error) -> sample.stop(serverRequestsTimer(method, path,
+                result != null ? String.valueOf(result.getStatusCodeValue()) : "IO_ERROR")));
+    }
+
+    private Timer serverRequestsTimer(HttpMethod method, String path, String status) {
+        int query = path.indexOf('?');
+        return Timer.builder(SERVER_REQUESTS_TIMER)
+                .tag("client", getClass().getSimpleName())
+                .tag("method", method.name())
+                .tag("uri", query < 0 ? path : path.substring(0, query))
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Set;
+
+/**
+ * Headers that describe the gateway-to-server connection and must not be copied into the gateway's own response.
+ */
+final class HopByHopHeaders {
+    private static final Set<String> NAMES = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "upgrade");
+
+    private HopByHopHeaders() {
+    }
+
+    static boolean contains(String name) {
+        return NAMES.contains(name.toLowerCase());
+    }
+
+    static HttpHeaders removeFrom(HttpHeaders headers) {
+        HttpHeaders endToEnd = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!contains(name)) {
+                endToEnd.addAll(name, values);
+            }
+        });
+        return endToEnd;
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends requests with the JDK HttpClient and completes the future from its executor,
+ * so no servlet thread waits on the server.
+ * With {@code shareit-server.pass-through} 2xx bodies are returned as bytes instead of being parsed.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "async")
+public class HttpClientTransport implements ServerTransport, DisposableBean {
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final boolean passThrough;
+
+    @Autowired
+    public HttpClientTransport(ObjectMapper objectMapper,
+                               @Value("${shareit-server.async.threads}") int threads,
+                               @Value("${shareit-server.connect-timeout}") Duration connectTimeout,
+                               @Value("${shareit-server.read-timeout}") Duration requestTimeout,
+                               @Value("${shareit-server.pass-through}") boolean passThrough) {
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.passThrough = passThrough;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .method(method.name(), toBodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::toResponseEntity);
+    }
+
+    /**
+     * Runs on the calling thread and without the request timeout, which would cap the length of the whole download;
+     * the connect timeout still applies.
+     */
+    @Override
+    public void download(URI uri, HttpHeaders headers, HttpServletResponse target) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + uri);
+        }
+        HttpHeaders responseHeaders = new HttpHeaders();
+        response.headers().map().forEach(responseHeaders::addAll);
+        try (InputStream body = response.body()) {
+            ResponseStreams.copy(response.statusCode(), responseHeaders, body, target);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private ResponseEntity<Object> toResponseEntity(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach((name, values) -> {
+            if (!HopByHopHeaders.contains(name)) {
+                headers.addAll(name, values);
+            }
+        });
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.statusCode()).headers(headers);
+        byte[] body = response.body();
+        if (body.length == 0) {
+            return builder.build();
+        }
+        if (passThrough || !HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+            return builder.body(body);
+        }
+        try {
+            return builder.body(objectMapper.readValue(body, Object.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.BodyPublisher toBodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof Resource) {
+            Resource resource = (Resource) body;
+            return HttpRequest.BodyPublishers.ofInputStream(() -> {
+                try {
+                    return resource.getInputStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return HttpRequest.BodyPublishers.ofByteArray(toJson(body));
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
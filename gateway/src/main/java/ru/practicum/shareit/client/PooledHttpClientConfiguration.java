@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one connection pool the blocking transport sends all server calls through.
+ * Its leased, pending and available connections are published as {@code httpcomponents.httpclient.pool.*}
+ * metrics tagged {@code httpclient=shareit-server}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+public class PooledHttpClientConfiguration {
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${shareit-server.pool.max-total}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(
+            PoolingHttpClientConnectionManager serverConnectionManager,
+            @Value("${shareit-server.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.pool.lease-timeout}") Duration leaseTimeout,
+            @Value("${shareit-server.pool.keep-alive}") Duration keepAlive,
+            @Value("${shareit-server.pool.max-idle-time}") Duration maxIdleTime) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) leaseTimeout.toMillis())
+                .build();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return fromServer > 0 ? fromServer : keepAlive.toMillis();
+        };
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps 200 responses to GETs that carry an ETag, keyed by URI and X-Sharer-User-Id.
+ * Entries are always revalidated with If-None-Match, so a hit saves the server serialising and sending
+ * the body but never serves a response the server wouldn't. Off unless {@code shareit-server.cache.enabled} is set.
+ */
+@Component
+public class ResponseCache {
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> responses;
+
+    @Autowired
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.cache.enabled:false}") boolean enabled,
+                         @Value("${shareit-server.cache.maximum-size}") long maximumSize,
+                         @Value("${shareit-server.cache.expire-after-write}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway-responses");
+    }
+
+    public static String key(String uri, @Nullable Long userId) {
+        return userId == null ? uri : uri + "#" + userId;
+    }
+
+    @Nullable
+    public ResponseEntity<Object> lookup(String key) {
+        return enabled ? responses.getIfPresent(key) : null;
+    }
+
+    /**
+     * The response to hand on for a revalidated or fresh request: the cached one on 304, otherwise the server's,
+     * remembered if it can be revalidated later.
+     */
+    public ResponseEntity<Object> update(String key, @Nullable ResponseEntity<Object> cached,
+                                         ResponseEntity<Object> response) {
+        if (!enabled) {
+            return response;
+        }
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            responses.put(key, cached);
+            return cached;
+        }
+        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+            responses.put(key, response);
+        } else {
+            responses.invalidate(key);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Copies a server response into the gateway's own as it is read.
+ */
+final class ResponseStreams {
+    private ResponseStreams() {
+    }
+
+    static void copy(int status, HttpHeaders headers, InputStream body, HttpServletResponse target)
+            throws IOException {
+        target.setStatus(status);
+        HopByHopHeaders.removeFrom(headers).forEach((name, values) -> values.forEach(value -> target.addHeader(name, value)));
+        StreamUtils.copy(body, target.getOutputStream());
+        target.flushBuffer();
+    }
+}
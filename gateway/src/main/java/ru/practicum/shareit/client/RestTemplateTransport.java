@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import javax.servlet.http.HttpServletResponse;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the calling thread for the whole exchange and returns an already completed future.
+ * With {@code shareit-server.pass-through} the body is read as bytes instead of a Jackson tree.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateTransport implements ServerTransport {
+    private static final ResponseErrorHandler PASS_ERRORS_THROUGH = new ResponseErrorHandler() {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    };
+
+    private final RestTemplate rest;
+    private final RestTemplate streamingRest;
+    private final Class<?> responseType;
+
+    @Autowired
+    public RestTemplateTransport(RestTemplateBuilder builder, HttpClient serverHttpClient,
+                                 @Value("${shareit-server.pass-through}") boolean passThrough) {
+        this.rest = builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                .build();
+        this.streamingRest = builder
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory factory =
+                            new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+                    factory.setBufferRequestBody(false);
+                    return factory;
+                })
+                .errorHandler(PASS_ERRORS_THROUGH)
+                .build();
+        this.responseType = passThrough ? byte[].class : Object.class;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        try {
+            ResponseEntity<?> response = (body instanceof Resource ? streamingRest : rest).exchange(uri, method, new HttpEntity<>(body, headers), responseType);
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<>(response.getBody(), HopByHopHeaders.removeFrom(response.getHeaders()),
+                            response.getStatusCode()));
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray()));
+        }
+    }
+
+    @Override
+    public void download(URI uri, HttpHeaders headers, HttpServletResponse target) {
+        streamingRest.execute(uri, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+            ResponseStreams.copy(response.getRawStatusCode(), response.getHeaders(), response.getBody(), target);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends proxied requests to the ShareIt server. Selected with {@code shareit-server.client}:
+ * {@code blocking} (RestTemplate, the default) or {@code async} (JDK HttpClient).
+ * Non-2xx responses complete normally with the server's status and raw body.
+ * A {@link org.springframework.core.io.Resource} body is streamed as is, other bodies are sent as JSON.
+ */
+public interface ServerTransport {
+    CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                       @Nullable Object body);
+
+    /**
+     * GETs from the server and copies status, headers and body into {@code target} as they arrive,
+     * so the body is never held in memory. Blocks until the whole body is copied.
+     */
+    void download(URI uri, HttpHeaders headers, HttpServletResponse target) throws IOException;
+}
@@ -1,47 +1,72 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                      ResponseCache responseCache, MeterRegistry meterRegistry,
+                      ObjectMapper objectMapper, Validator validator) {
+        super(serverUrl + API_PREFIX, transport, responseCache, meterRegistry);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
+    /**
+     * Forwards the lines that pass validation as they arrive, then adds the rejected ones
+     * to the server's summary.
+     */
+    public CompletableFuture<ResponseEntity<Object>> importItems(long userId, InputStream ndjson) {
+        ValidatedItemLines lines = new ValidatedItemLines(ndjson, objectMapper.readerFor(ItemDto.class), validator);
+        return postStream("/import", userId, MediaType.APPLICATION_NDJSON, new InputStreamResource(lines))
+                .thenApply(response -> response.getStatusCode().is2xxSuccessful()
+                        ? ResponseEntity.ok(withGatewayErrors(response.getBody(), lines))
+                        : response);
+    }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, long userID) {
-        return patch("/" + itemDto.getId(), userID, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> updateItem(ItemDto itemDto, long userID) {
+        return patch("/{itemId}", userID, Map.of("itemId", itemDto.getId()), itemDto);
     }
 
-    public ResponseEntity<Object> getItemByID(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemByID(long itemId, long userId) {
+        return get("/{itemId}", userId, Map.of("itemId", itemId));
     }
 
-    public ResponseEntity<Object> getItemsForUser(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsForUser(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -49,7 +74,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItemsByText(String text, int from, int size, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> searchItemsByText(String text, int from, int size, long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -59,8 +84,26 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addCommentToItem(long itemId, long userId, CommentRequestDto commentRequestDto) {
-        return post("/" + itemId + "/comment", userId, commentRequestDto);
+    public CompletableFuture<ResponseEntity<Object>> addCommentToItem(long itemId, long userId, CommentRequestDto commentRequestDto) {
+        return post("/{itemId}/comment", userId, Map.of("itemId", itemId), commentRequestDto);
+    }
+
+    private Object withGatewayErrors(Object serverBody, ValidatedItemLines lines) {
+        ItemImportResultDto result;
+        try {
+            result = serverBody instanceof byte[]
+                    ? objectMapper.readValue((byte[]) serverBody, ItemImportResultDto.class)
+                    : objectMapper.convertValue(serverBody, ItemImportResultDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<ItemImportErrorDto> errors = new ArrayList<>(result.getErrors());
+        errors.addAll(lines.errors());
+        errors.sort(Comparator.comparingLong(ItemImportErrorDto::getLine));
+        return result.toBuilder()
+                .failed(result.getFailed() + lines.failed())
+                .errors(errors.subList(0, Math.min(errors.size(), ItemImportResultDto.MAX_ERRORS)))
+                .build();
     }
 
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +10,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Headers.USER_ID_HEADER;
 
@@ -24,27 +27,33 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(USER_ID_HEADER) Long userID,
+    public CompletableFuture<ResponseEntity<Object>> addItem(@RequestHeader(USER_ID_HEADER) Long userID,
                                           @Valid @RequestBody ItemDto itemDto) {
         return itemClient.addItem(userID, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<Object>> importItems(@RequestHeader(USER_ID_HEADER) Long userID,
+                                                                 InputStream ndjson) {
+        return itemClient.importItems(userID, ndjson);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) Long userID,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader(USER_ID_HEADER) Long userID,
                                              @PathVariable long itemId,
                                              @RequestBody ItemDto itemDto) {
         return itemClient.updateItem(itemDto.toBuilder().id(itemId).build(), userID);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(
+    public CompletableFuture<ResponseEntity<Object>> getItem(
             @RequestHeader(USER_ID_HEADER) Long userID,
             @PathVariable long itemId) {
         return itemClient.getItemByID(itemId, userID);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsForUser(
+    public CompletableFuture<ResponseEntity<Object>> getItemsForUser(
             @RequestHeader(USER_ID_HEADER) Long userID,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
             @RequestParam(defaultValue = "20") @Min(1) Integer size) {
@@ -52,7 +61,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(
+    public CompletableFuture<ResponseEntity<Object>> searchItemsByText(
             @RequestHeader(USER_ID_HEADER) Long userID,
             @RequestParam String text,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
@@ -61,7 +70,7 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addCommentToItem(
+    public CompletableFuture<ResponseEntity<Object>> addCommentToItem(
             @RequestHeader(USER_ID_HEADER) Long userID,
             @PathVariable Long itemId,
             @Valid @RequestBody CommentRequestDto commentRequestDto) {
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * An NDJSON body read through one line at a time, with every line checked against the ItemDto constraints.
+ * Rejected lines come out blank, so the server keeps counting lines the same way the client did,
+ * are counted in {@link #failed()}, and the first {@link ItemImportResultDto#MAX_ERRORS} are listed
+ * in {@link #errors()}.
+ */
+class ValidatedItemLines extends InputStream {
+    private static final byte[] BLANK_LINE = {'\n'};
+
+    private final BufferedReader reader;
+    private final ObjectReader itemDtoReader;
+    private final Validator validator;
+    // filled by whichever thread the transport reads the body on
+    private final List<ItemImportErrorDto> errors = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failed = new AtomicInteger();
+    private byte[] current = new byte[0];
+    private int position;
+    private long line;
+    private boolean finished;
+
+    ValidatedItemLines(InputStream ndjson, ObjectReader itemDtoReader, Validator validator) {
+        this.reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        this.itemDtoReader = itemDtoReader;
+        this.validator = validator;
+    }
+
+    List<ItemImportErrorDto> errors() {
+        return errors;
+    }
+
+    int failed() {
+        return failed.get();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean fill() throws IOException {
+        while (position == current.length) {
+            String json = finished ? null : reader.readLine();
+            if (json == null) {
+                finished = true;
+                return false;
+            }
+            line++;
+            String error = json.isBlank() ? null : validate(json);
+            if (error == null) {
+                current = (json + "\n").getBytes(StandardCharsets.UTF_8);
+            } else {
+                if (failed.incrementAndGet() <= ItemImportResultDto.MAX_ERRORS) {
+                    errors.add(ItemImportErrorDto.builder().line(line).error(error).build());
+                }
+                current = BLANK_LINE;
+            }
+            position = 0;
+        }
+        return true;
+    }
+
+    private String validate(String json) {
+        ItemDto itemDto;
+        try {
+            itemDto = itemDtoReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            return "Malformed JSON: " + e.getOriginalMessage();
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
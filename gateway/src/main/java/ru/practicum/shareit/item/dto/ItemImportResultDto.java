@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Summary of an NDJSON item import: how many lines became items, how many didn't,
+ * and why for the first {@value #MAX_ERRORS} of those.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ItemImportResultDto {
+    public static final int MAX_ERRORS = 100;
+
+    int imported;
+    int failed;
+    List<ItemImportErrorDto> errors;
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.constants.Headers.USER_ID_HEADER;
+
+/**
+ * Limits each X-Sharer-User-Id per route family before anything is sent to the server, answering
+ * 429 with Retry-After once the user's bucket is empty. Requests without a numeric user id pass through;
+ * the controllers that need one reject them anyway.
+ * Idle buckets are dropped every half {@code shareit.rate-limit.idle-timeout}, so memory follows
+ * the number of recently active users.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter implements DisposableBean {
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<LimitedRoute> routes = new ArrayList<>();
+    private final ScheduledExecutorService evictor;
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        properties.getRoutes().forEach((name, route) -> routes.add(new LimitedRoute(
+                route.getPattern(),
+                new RateLimiter(route.getPermitsPerSecond(), route.getBurst()),
+                Counter.builder("gateway.rate-limit.rejected").tag("route", name).register(meterRegistry))));
+
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> routes.forEach(route -> route.limiter.evictIdle(idleNanos)),
+                idleNanos / 2, idleNanos / 2, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = userId(request);
+        LimitedRoute route = userId == null ? null : route(request.getRequestURI());
+        if (route != null) {
+            long waitNanos = route.limiter.tryAcquire(userId);
+            if (waitNanos > 0) {
+                route.rejected.increment();
+                rejectTooManyRequests(response, waitNanos);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    private LimitedRoute route(String path) {
+        for (LimitedRoute route : routes) {
+            if (pathMatcher.match(route.pattern, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void rejectTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long retryAfterSeconds = Math.max(1, (waitNanos + second - 1) / second);
+        log.debug("Получен статус 429 Too Many Requests, повтор через {} с", retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Too many requests, retry in " + retryAfterSeconds + " s.\"}");
+    }
+
+    private static final class LimitedRoute {
+        private final String pattern;
+        private final RateLimiter limiter;
+        private final Counter rejected;
+
+        private LimitedRoute(String pattern, RateLimiter limiter, Counter rejected) {
+            this.pattern = pattern;
+            this.limiter = limiter;
+            this.rejected = rejected;
+        }
+    }
+}
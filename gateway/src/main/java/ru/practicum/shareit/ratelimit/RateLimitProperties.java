@@ -0,0 +1,34 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code shareit.rate-limit.*}: a limit per route family, matched against the request path
+ * in the order the families are declared. Paths matching no family aren't limited.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("shareit.rate-limit")
+public class RateLimitProperties {
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        /**
+         * Ant-style path pattern, e.g. {@code /items/search} or {@code /**}.
+         */
+        private String pattern;
+        private double permitsPerSecond;
+        private int burst;
+    }
+}
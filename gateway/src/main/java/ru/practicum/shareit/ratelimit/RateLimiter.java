@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link TokenBucket} per user for a route family. Users only contend with themselves:
+ * lookups of existing buckets don't lock, and each bucket is updated with its own CAS.
+ */
+public final class RateLimiter {
+    private final long nanosPerPermit;
+    private final int burst;
+    private final ConcurrentHashMap<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this.nanosPerPermit = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+    }
+
+    /**
+     * @return 0 if the user may go ahead, otherwise how many nanoseconds until they may
+     */
+    public long tryAcquire(long userId) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(userId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(userId, id -> new TokenBucket(nanosPerPermit, burst, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Drops the buckets of users who haven't needed one for {@code idleNanos}. A request racing with the
+     * removal may take its token from the dropped bucket, which costs that user at most one extra token.
+     */
+    public void evictIdle(long idleNanos) {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as the one time at which it will be full again, so taking a token is a single CAS
+ * and a rejection only reads. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long nanosPerPermit, int burst, long now) {
+        this.nanosPerPermit = nanosPerPermit;
+        this.burstNanos = nanosPerPermit * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if there is one.
+     *
+     * @return 0 if a token was taken, otherwise how many nanoseconds until the next one
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + nanosPerPermit;
+            long overdraft = next - now - burstNanos;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has been full for longer than {@code idleNanos}; such a bucket can be dropped
+     * and recreated later without changing what its key is allowed.
+     */
+    public boolean isIdle(long now, long idleNanos) {
+        return now - fullAt.get() > idleNanos;
+    }
+}
@@ -1,40 +1,37 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                             ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(serverUrl + API_PREFIX, transport, responseCache, meterRegistry);
     }
 
-    public ResponseEntity<Object> addRequest(ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addRequest(ItemRequestDto itemRequestDto) {
         return post("", itemRequestDto.getRequesterId(), itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestsForUser(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestsForUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,7 +40,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(long userId, long requestId) {
+        return get("/{requestId}", userId, Map.of("requestId", requestId));
     }
 }
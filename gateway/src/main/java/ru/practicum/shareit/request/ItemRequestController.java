@@ -8,6 +8,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constants.Headers.USER_ID_HEADER;
 
@@ -23,7 +24,7 @@ public class ItemRequestController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(
+    public CompletableFuture<ResponseEntity<Object>> addRequest(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return itemRequestClient.addRequest(itemRequestDto.toBuilder()
@@ -31,13 +32,13 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsForUser(
+    public CompletableFuture<ResponseEntity<Object>> getRequestsForUser(
             @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemRequestClient.getRequestsForUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
             @RequestParam(defaultValue = "20") @Min(1) Integer size) {
@@ -45,7 +46,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @PathVariable Long requestId) {
         return itemRequestClient.getRequestById(userId, requestId);
@@ -1,46 +1,45 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                      ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(serverUrl + API_PREFIX, transport, responseCache, meterRegistry);
     }
 
-    public ResponseEntity<Object> findAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> findAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto) {
-        return patch("/" + userDto.getId(), userDto);
+    public CompletableFuture<ResponseEntity<Object>> updateUser(UserDto userDto) {
+        return patch("/{userId}", null, Map.of("userId", userDto.getId()), userDto);
     }
 
-    public ResponseEntity<Object> getUserByID(long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> getUserByID(long userId) {
+        return get("/{userId}", null, Map.of("userId", userId));
     }
 
-    public ResponseEntity<Object> deleteUserByID(long userId) {
-        return delete("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> deleteUserByID(long userId) {
+        return delete("/{userId}", null, Map.of("userId", userId));
     }
 }
@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.MarkerValidation;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @RestController
 @RequestMapping(path = "/users")
@@ -19,28 +21,28 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> findAllUsers() {
         return userClient.findAllUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Validated(MarkerValidation.OnCreate.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> addUser(@Validated(MarkerValidation.OnCreate.class) @RequestBody UserDto userDto) {
         return userClient.addUser(userDto);
     }
 
     @PatchMapping("/{userID}")
-    public ResponseEntity<Object> updateUser(@Validated(MarkerValidation.OnUpdate.class) @RequestBody UserDto userDto,
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@Validated(MarkerValidation.OnUpdate.class) @RequestBody UserDto userDto,
                                              @PathVariable long userID) {
         return userClient.updateUser(userDto.toBuilder().id(userID).build());
     }
 
     @GetMapping("/{userID}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userID) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(@PathVariable long userID) {
         return userClient.getUserByID(userID);
     }
 
     @DeleteMapping("/{userID}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable long userID) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUserById(@PathVariable long userID) {
         return userClient.deleteUserByID(userID);
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How many proxied requests the gateway keeps in flight with a fixed number of servlet threads.
+ * A stub server answers after a fixed delay, and a fixed number of closed-loop clients call the gateway
+ * back to back; with a blocking transport the stub never sees more requests at once than the gateway has threads.
+ * The gateway's live platform threads and used heap are sampled from actuator every second.
+ */
+public class CapacityTest {
+    private static final int STUB_PORT = 9090;
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"statistic\":\"VALUE\",\"value\":([-0-9.E]+)");
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final EndpointStats stats = new EndpointStats();
+    private final AtomicLong peakThreads = new AtomicLong(-1);
+    private final AtomicLong peakMemory = new AtomicLong(-1);
+    private volatile long deadline;
+
+    public CapacityTest(LoadTestConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+        this.request = HttpRequest.newBuilder(URI.create(config.gatewayUrl + "/users"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    public static void run(LoadTestConfig config, HttpClient client) throws Exception {
+        try (StubServer stub = new StubServer(STUB_PORT, config.serverDelay);
+             ShareItProcesses ignored = config.launch
+                     ? ShareItProcesses.startGateway(config, client, stub.url()) : null) {
+            CapacityTest test = new CapacityTest(config, client);
+
+            System.out.printf("Warming up for %ds with %d clients...%n", config.warmup.toSeconds(), config.concurrency);
+            test.drive(config.warmup);
+            test.stats.reset();
+            stub.resetMaxInFlight();
+
+            System.out.printf("Measuring for %ds with %d clients...%n", config.duration.toSeconds(), config.concurrency);
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleWithFixedDelay(test::sampleGateway, 1, 1, TimeUnit.SECONDS);
+            try {
+                test.drive(config.duration);
+            } finally {
+                sampler.shutdownNow();
+            }
+
+            double seconds = config.duration.toSeconds();
+            System.out.printf("%nclient=%s threads=%s gateway-threads=%d server-delay=%dms concurrency=%d%n",
+                    config.clientMode, config.virtualThreads ? "virtual" : "platform", config.gatewayThreads,
+                    config.serverDelay.toMillis(), config.concurrency);
+            System.out.printf("requests %d, errors %d, %.1f req/s, max in flight at server %d, "
+                            + "p50 %.2f ms, p99 %.2f ms%n",
+                    test.stats.count(), test.stats.errors(), test.stats.count() / seconds, stub.maxInFlight(),
+                    test.stats.percentileMillis(50), test.stats.percentileMillis(99));
+            System.out.printf("gateway peak: %d live threads, %d MB heap used%n",
+                    test.peakThreads.get(), Math.max(-1, test.peakMemory.get() / (1024 * 1024)));
+        }
+    }
+
+    private void sampleGateway() {
+        peakThreads.accumulateAndGet(metric("jvm.threads.live"), Math::max);
+        peakMemory.accumulateAndGet(metric("jvm.memory.used?tag=area:heap"), Math::max);
+    }
+
+    private long metric(String name) {
+        HttpRequest metric = HttpRequest.newBuilder(URI.create(config.gatewayUrl + "/actuator/metrics/" + name))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(metric, HttpResponse.BodyHandlers.ofString());
+            Matcher value = METRIC_VALUE.matcher(response.body());
+            return response.statusCode() == 200 && value.find() ? (long) Double.parseDouble(value.group(1)) : -1;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+        private void drive(Duration duration) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(config.concurrency);
+        deadline = System.nanoTime() + duration.toNanos();
+        for (int i = 0; i < config.concurrency; i++) {
+            next(done);
+        }
+        done.await(duration.toSeconds() + 120, TimeUnit.SECONDS);
+    }
+
+    private void next(CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    stats.record(System.nanoTime() - start, error == null && response.statusCode() == 200);
+                    next(done);
+                });
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gateway endpoints in the traffic mix, with the user and query each request is sent as.
+ */
+public enum Endpoint {
+    ITEMS("items") {
+        @Override
+        String pathAndQuery(SeedData data, Random random) {
+            return "/items?from=0&size=20";
+        }
+
+        @Override
+        long userId(SeedData data, Random random) {
+            return pick(data.owners, random);
+        }
+    },
+    SEARCH("search") {
+        @Override
+        String pathAndQuery(SeedData data, Random random) {
+            String text = data.words.get(random.nextInt(data.words.size()));
+            return "/items/search?from=0&size=20&text=" + URLEncoder.encode(text, StandardCharsets.UTF_8);
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        String pathAndQuery(SeedData data, Random random) {
+            return "/bookings?state=ALL&from=0&size=20";
+        }
+
+        @Override
+        long userId(SeedData data, Random random) {
+            return pick(data.bookers, random);
+        }
+    },
+    BOOKINGS_OWNER("owner") {
+        @Override
+        String pathAndQuery(SeedData data, Random random) {
+            return "/bookings/owner?state=ALL&from=0&size=20";
+        }
+
+        @Override
+        long userId(SeedData data, Random random) {
+            return pick(data.owners, random);
+        }
+    },
+    REQUESTS_ALL("requests") {
+        @Override
+        String pathAndQuery(SeedData data, Random random) {
+            return "/requests/all?from=0&size=20";
+        }
+    };
+
+    final String shortName;
+
+    Endpoint(String shortName) {
+        this.shortName = shortName;
+    }
+
+    abstract String pathAndQuery(SeedData data, Random random);
+
+    long userId(SeedData data, Random random) {
+        return pick(data.users, random);
+    }
+
+    static Endpoint byName(String shortName) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.shortName.equalsIgnoreCase(shortName)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + shortName);
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one endpoint. Latency is measured from the moment
+ * the request was scheduled, not sent, so queueing in the generator is not hidden.
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latencyMicros.reset();
+        errors.reset();
+    }
+
+    long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the gateway: requests are started at a fixed rate
+ * whether or not earlier ones have finished, and latency percentiles are reported per endpoint.
+ */
+public class LoadTest {
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] weightedEndpoints;
+
+    public LoadTest(LoadTestConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+        int totalWeight = config.mix.values().stream().mapToInt(Integer::intValue).sum();
+        weightedEndpoints = new Endpoint[totalWeight];
+        int index = 0;
+        for (Map.Entry<Endpoint, Integer> entry : config.mix.entrySet()) {
+            stats.put(entry.getKey(), new EndpointStats());
+            for (int i = 0; i < entry.getValue(); i++) {
+                weightedEndpoints[index++] = entry.getKey();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        if ("capacity".equals(config.scenario)) {
+            CapacityTest.run(config, client);
+            return;
+        }
+        if ("race".equals(config.scenario)) {
+            RaceTest.run(config, client);
+            return;
+        }
+
+        ShareItProcesses processes = config.launch ? ShareItProcesses.start(config, client) : null;
+        try {
+            System.out.printf("Seeding %d users, %d items each, %d bookings per item...%n",
+                    config.users, config.itemsPerUser, config.bookingsPerItem);
+            SeedData data = new Seeder(client, config.gatewayUrl)
+                    .seed(config.users, config.itemsPerUser, config.bookingsPerItem);
+
+            LoadTest loadTest = new LoadTest(config, client);
+            System.out.printf("Warming up for %ds at %d req/s...%n", config.warmup.toSeconds(), config.rate);
+            loadTest.run(data, config.warmup);
+            loadTest.stats.values().forEach(EndpointStats::reset);
+
+            System.out.printf("Measuring for %ds at %d req/s...%n", config.duration.toSeconds(), config.rate);
+            loadTest.run(data, config.duration);
+            loadTest.report(config.duration);
+        } finally {
+            if (processes != null) {
+                processes.close();
+            }
+        }
+    }
+
+    void run(SeedData data, Duration duration) throws InterruptedException, TimeoutException {
+        Random random = new Random();
+        Phaser inFlight = new Phaser(1);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long requests = duration.toSeconds() * config.rate;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < requests; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(config.gatewayUrl + endpoint.pathAndQuery(data, random)))
+                    .header("X-Sharer-User-Id", Long.toString(endpoint.userId(data, random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            inFlight.register();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        stats.get(endpoint).record(System.nanoTime() - scheduledAt,
+                                error == null && response.statusCode() / 100 == 2);
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+        inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), 1, TimeUnit.MINUTES);
+    }
+
+    void report(Duration duration) {
+        System.out.printf("%n%-10s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        stats.forEach((endpoint, s) -> System.out.printf("%-10s %9d %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint.shortName, s.count(), s.errors(), (double) s.count() / duration.toSeconds(),
+                s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9), s.maxMillis()));
+    }
+}
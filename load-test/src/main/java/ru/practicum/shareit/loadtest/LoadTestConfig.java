@@ -0,0 +1,70 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings given as key=value arguments, for example {@code rate=500 duration=120 launch=true}.
+ */
+public class LoadTestConfig {
+    final String gatewayUrl;
+    final int rate;
+    final Duration duration;
+    final Duration warmup;
+    final int users;
+    final int itemsPerUser;
+    final int bookingsPerItem;
+    final Map<Endpoint, Integer> mix;
+    final String scenario;
+    final int concurrency;
+    final Duration serverDelay;
+    final String clientMode;
+    final int gatewayThreads;
+    final boolean virtualThreads;
+    final boolean launch;
+    final String serverJar;
+    final String gatewayJar;
+
+    private LoadTestConfig(Map<String, String> args) {
+        gatewayUrl = args.getOrDefault("gateway", "http://localhost:8080");
+        rate = Integer.parseInt(args.getOrDefault("rate", "200"));
+        duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "60")));
+        warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        users = Integer.parseInt(args.getOrDefault("users", "50"));
+        itemsPerUser = Integer.parseInt(args.getOrDefault("items", "10"));
+        bookingsPerItem = Integer.parseInt(args.getOrDefault("bookings", "5"));
+        mix = parseMix(args.getOrDefault("mix", "items:30,search:25,bookings:20,owner:15,requests:10"));
+        scenario = args.getOrDefault("scenario", "mix");
+        concurrency = Integer.parseInt(args.getOrDefault("concurrency", "200"));
+        serverDelay = Duration.ofMillis(Long.parseLong(args.getOrDefault("server-delay", "100")));
+        clientMode = args.getOrDefault("client", "blocking");
+        gatewayThreads = Integer.parseInt(args.getOrDefault("gateway-threads", "200"));
+        virtualThreads = "virtual".equals(args.getOrDefault("threads", "platform"));
+        launch = Boolean.parseBoolean(args.getOrDefault("launch", "false"));
+        serverJar = args.getOrDefault("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT-exec.jar");
+        gatewayJar = args.getOrDefault("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT-exec.jar");
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Endpoint.byName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Races concurrent writes against the same rows and checks the outcome:
+ * {@code concurrency} owners' tabs approving one booking must produce exactly one approval,
+ * and concurrent patches of an item's name and description must both survive.
+ */
+public class RaceTest {
+    private final HttpClient client;
+    private final String gatewayUrl;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Integer, Integer> approvalStatuses = new TreeMap<>();
+    private final Map<Integer, Integer> patchStatuses = new TreeMap<>();
+    private int doubleApprovals;
+    private int lostUpdates;
+
+    public RaceTest(HttpClient client, String gatewayUrl) {
+        this.client = client;
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    public static void run(LoadTestConfig config, HttpClient client) throws IOException, InterruptedException {
+        try (ShareItProcesses ignored = config.launch ? ShareItProcesses.start(config, client) : null) {
+            RaceTest test = new RaceTest(client, config.gatewayUrl);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            long owner = test.post("/users", null, Map.of("name", "race owner", "email", "race-o-" + runId + "@shareit.local"));
+            long booker = test.post("/users", null, Map.of("name", "race booker", "email", "race-b-" + runId + "@shareit.local"));
+            LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+            System.out.printf("Racing %d requests per row over %d items...%n", config.concurrency, config.itemsPerUser);
+            for (int i = 0; i < config.itemsPerUser; i++) {
+                long itemId = test.post("/items", owner, Map.of("name", "race " + i, "description", "race", "available", true));
+                long bookingId = test.post("/bookings", booker, Map.of(
+                        "itemId", itemId, "start", start.toString(), "end", start.plusHours(1).toString()));
+
+                test.raceApprovals(owner, bookingId, config.concurrency);
+                test.racePatches(owner, itemId, config.concurrency);
+            }
+
+            System.out.printf("%napprove responses by status: %s, double approvals: %d%n",
+                    test.approvalStatuses, test.doubleApprovals);
+            System.out.printf("patch responses by status: %s, lost updates: %d%n",
+                    test.patchStatuses, test.lostUpdates);
+        }
+    }
+
+    private void raceApprovals(long owner, long bookingId, int racers) {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < racers; i++) {
+            responses.add(sendAsync(HttpRequest.newBuilder(URI.create(
+                            gatewayUrl + "/bookings/" + bookingId + "?approved=true"))
+                    .header("X-Sharer-User-Id", Long.toString(owner))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())));
+        }
+
+        int approved = 0;
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            int status = response.join().statusCode();
+            approvalStatuses.merge(status, 1, Integer::sum);
+            if (status == 200) {
+                approved++;
+            }
+        }
+        if (approved != 1) {
+            doubleApprovals++;
+        }
+    }
+
+    private void racePatches(long owner, long itemId, int racers) throws IOException, InterruptedException {
+        for (int round = 0; round < racers / 2; round++) {
+            String name = "race name " + round;
+            String description = "race description " + round;
+            CompletableFuture<HttpResponse<String>> nameUpdate = patchItem(owner, itemId, Map.of("name", name));
+            CompletableFuture<HttpResponse<String>> descriptionUpdate =
+                    patchItem(owner, itemId, Map.of("description", description));
+            int nameStatus = nameUpdate.join().statusCode();
+            int descriptionStatus = descriptionUpdate.join().statusCode();
+            patchStatuses.merge(nameStatus, 1, Integer::sum);
+            patchStatuses.merge(descriptionStatus, 1, Integer::sum);
+
+            JsonNode item = mapper.readTree(send(HttpRequest.newBuilder(URI.create(gatewayUrl + "/items/" + itemId))
+                    .header("X-Sharer-User-Id", Long.toString(owner))));
+            if ((nameStatus == 200 && !name.equals(item.get("name").asText()))
+                    || (descriptionStatus == 200 && !description.equals(item.get("description").asText()))) {
+                lostUpdates++;
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> patchItem(long owner, long itemId, Map<String, Object> body)
+            throws IOException {
+        return sendAsync(HttpRequest.newBuilder(URI.create(gatewayUrl + "/items/" + itemId))
+                .header("X-Sharer-User-Id", Long.toString(owner))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body))));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest.Builder request) {
+        return client.sendAsync(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId.toString());
+        }
+        return mapper.readTree(send(request)).get("id").asLong();
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("%s failed with %d: %s",
+                    response.request().uri(), response.statusCode(), response.body()));
+        }
+        return response.body();
+    }
+}
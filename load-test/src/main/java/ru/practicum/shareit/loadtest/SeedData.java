@@ -0,0 +1,20 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.List;
+
+/**
+ * Ids created by the Seeder that the traffic is spread over.
+ */
+public class SeedData {
+    final List<Long> users;
+    final List<Long> owners;
+    final List<Long> bookers;
+    final List<String> words;
+
+    SeedData(List<Long> users, List<Long> owners, List<Long> bookers, List<String> words) {
+        this.users = users;
+        this.owners = owners;
+        this.bookers = bookers;
+        this.words = words;
+    }
+}
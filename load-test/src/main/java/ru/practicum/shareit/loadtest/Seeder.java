@@ -0,0 +1,98 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates users, items, requests and bookings through the gateway. Half of the users own items,
+ * the other half book them; bookings of one item are consecutive and never overlap.
+ */
+public class Seeder {
+    private static final List<String> WORDS = List.of(
+            "drill", "saw", "hammer", "ladder", "tent", "kayak", "camera", "tripod",
+            "projector", "speaker", "bicycle", "helmet", "scooter", "sander", "grinder", "vacuum");
+
+    private final HttpClient client;
+    private final String gatewayUrl;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public Seeder(HttpClient client, String gatewayUrl) {
+        this.client = client;
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    public SeedData seed(int users, int itemsPerUser, int bookingsPerItem) throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < Math.max(users, 2); i++) {
+            userIds.add(post("/users", null, Map.of(
+                    "name", "load user " + i,
+                    "email", "load-" + runId + "-" + i + "@shareit.local")));
+        }
+
+        List<Long> owners = userIds.subList(0, userIds.size() / 2);
+        List<Long> bookers = userIds.subList(userIds.size() / 2, userIds.size());
+        LocalDateTime firstStart = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        int itemNumber = 0;
+        for (long owner : owners) {
+            post("/requests", owner, Map.of("description", "need a " + WORDS.get(itemNumber % WORDS.size())));
+
+            for (int i = 0; i < itemsPerUser; i++, itemNumber++) {
+                String word = WORDS.get(itemNumber % WORDS.size());
+                long itemId = post("/items", owner, Map.of(
+                        "name", word + " " + itemNumber,
+                        "description", "a " + word + " for rent, " + WORDS.get((itemNumber * 7) % WORDS.size()),
+                        "available", true));
+
+                for (int b = 0; b < bookingsPerItem; b++) {
+                    LocalDateTime start = firstStart.plusHours(2L * b);
+                    long booker = bookers.get((itemNumber + b) % bookers.size());
+                    long bookingId = post("/bookings", booker, Map.of(
+                            "itemId", itemId,
+                            "start", start.toString(),
+                            "end", start.plusHours(1).toString()));
+                    if (b % 2 == 0) {
+                        send(HttpRequest.newBuilder(URI.create(
+                                        gatewayUrl + "/bookings/" + bookingId + "?approved=true"))
+                                .header("X-Sharer-User-Id", Long.toString(owner))
+                                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                                .build());
+                    }
+                }
+            }
+        }
+        return new SeedData(userIds, owners, bookers, WORDS);
+    }
+
+    private long post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId.toString());
+        }
+        JsonNode response = mapper.readTree(send(request.build()));
+        return response.get("id").asLong();
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("Seeding %s %s failed with %d: %s",
+                    request.method(), request.uri(), response.statusCode(), response.body()));
+        }
+        return response.body();
+    }
+}
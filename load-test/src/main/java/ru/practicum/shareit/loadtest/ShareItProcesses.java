@@ -0,0 +1,101 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the server on H2 (test profile) and the gateway in front of it as child processes,
+ * or only the gateway in front of another server.
+ */
+public class ShareItProcesses implements AutoCloseable {
+    private static final int SERVER_PORT = 9090;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process server;
+    private final Process gateway;
+
+    private ShareItProcesses(Process server, Process gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    public static ShareItProcesses start(LoadTestConfig config, HttpClient client)
+            throws IOException, InterruptedException {
+        String serverUrl = "http://localhost:" + SERVER_PORT;
+        Process server = launch(config.serverJar, "server",
+                "--spring.profiles.active=test", "--server.port=" + SERVER_PORT,
+                "--shareit.threads.virtual=" + config.virtualThreads);
+        return withGateway(server, config, client, serverUrl);
+    }
+
+    public static ShareItProcesses startGateway(LoadTestConfig config, HttpClient client, String serverUrl)
+            throws IOException, InterruptedException {
+        return withGateway(null, config, client, serverUrl);
+    }
+
+    @Override
+    public void close() {
+        gateway.destroy();
+        if (server != null) {
+            server.destroy();
+        }
+    }
+
+    private static ShareItProcesses withGateway(Process server, LoadTestConfig config, HttpClient client,
+                                                String serverUrl) throws IOException, InterruptedException {
+        int gatewayPort = URI.create(config.gatewayUrl).getPort();
+        Process gateway = launch(config.gatewayJar, "gateway",
+                "--server.port=" + gatewayPort, "--shareit-server.url=" + serverUrl,
+                "--shareit-server.client=" + config.clientMode,
+                "--server.tomcat.threads.max=" + config.gatewayThreads,
+                "--shareit.threads.virtual=" + config.virtualThreads,
+                "--shareit.rate-limit.enabled=false",
+                "--management.endpoints.web.exposure.include=health,metrics",
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+        ShareItProcesses processes = new ShareItProcesses(server, gateway);
+
+        try {
+            if (server != null) {
+                awaitHealthy(client, serverUrl);
+            }
+            awaitHealthy(client, config.gatewayUrl);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            processes.close();
+            throw e;
+        }
+        return processes;
+    }
+
+    private static Process launch(String jar, String name, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"), "-jar", jar));
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "shareit-" + name + ".log"))
+                .start();
+    }
+
+    private static void awaitHealthy(HttpClient client, String baseUrl) throws InterruptedException, IOException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IOException(baseUrl + " didn't become healthy within " + STARTUP_TIMEOUT);
+    }
+}
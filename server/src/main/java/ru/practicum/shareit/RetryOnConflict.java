@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reruns a write transaction that lost an optimistic locking race, so its checks see the winner's changes.
+ * Once {@code shareit.conflict-retry.max-attempts} are used up the conflict reaches the client as 409.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(value = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${shareit.conflict-retry.max-attempts}",
+        backoff = @Backoff(delayExpression = "${shareit.conflict-retry.delay-ms}", multiplier = 2, random = true))
+public @interface RetryOnConflict {
+}
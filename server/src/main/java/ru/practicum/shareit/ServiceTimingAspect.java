@@ -0,0 +1,89 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.StateForRequest;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans as {@code shareit.service}, tagged by service,
+ * method, the endpoint pattern that led there and, for the booking lists, the requested state.
+ * Tags only take values from fixed sets, so a client sending odd states or ids can't grow the registry.
+ * <p>
+ * Runs first, outside the retry advice ({@code @EnableRetry}, LOWEST_PRECEDENCE - 1) and the transaction
+ * advice (LOWEST_PRECEDENCE): a timing covers every attempt and the commit, and {@code exception} is
+ * what the caller got, not a conflict that a retry recovered from.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+    private static final String SERVICE_TIMER = "shareit.service";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("service", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", state(signature.getParameterNames(), joinPoint.getArgs()))
+                    .tag("endpoint", endpoint())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String state(String[] parameterNames, Object[] args) {
+        for (int i = 0; i < parameterNames.length; i++) {
+            if ("state".equals(parameterNames[i])) {
+                for (StateForRequest s : StateForRequest.values()) {
+                    if (s.name().equalsIgnoreCase(String.valueOf(args[i]))) {
+                        return s.name();
+                    }
+                }
+                return "UNKNOWN";
+            }
+        }
+        return NONE;
+    }
+
+    private static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (pattern == null) {
+            return NONE;
+        }
+        return ((ServletRequestAttributes) attributes).getRequest().getMethod() + " " + pattern;
+    }
+}
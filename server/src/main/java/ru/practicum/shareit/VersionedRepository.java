@@ -0,0 +1,13 @@
+package ru.practicum.shareit;
+
+/**
+ * Repository fragment for entities whose {@code @Version} also stands for their dependent rows,
+ * so a change to those rows must bump it even when the entity itself isn't modified.
+ */
+public interface VersionedRepository<T> {
+
+    /**
+     * Increments the version of a loaded entity when the current transaction flushes.
+     */
+    void incrementVersion(T entity);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+
+public class VersionedRepositoryImpl<T> implements VersionedRepository<T> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void incrementVersion(T entity) {
+        entityManager.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+}
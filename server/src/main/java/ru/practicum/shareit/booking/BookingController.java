@@ -1,16 +1,23 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
 
     @Autowired
@@ -31,6 +38,13 @@ public class BookingController {
         return bookingService.approveBooking(userID, bookingId, approved);
     }
 
+    @PatchMapping("/owner/batch")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader(USER_ID_HEADER) Long userID,
+                                                          @RequestParam Boolean approved,
+                                                          @RequestBody List<Long> bookingIds) {
+        return bookingService.approveBookings(userID, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@RequestHeader(USER_ID_HEADER) Long userID,
                                              @PathVariable Long bookingId) {
@@ -39,20 +53,54 @@ public class BookingController {
 
 
     @GetMapping
-    public List<BookingResponseDto> getAllBookingsForUser(
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingsForUser(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size) {
-        return bookingService.getAllBookingsForUser(userId, state, from, size);
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return withNextCursor(
+                bookingService.getAllBookingsForUser(userId, state, from, size, cursor),
+                cursor, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllBookingsForOwner(
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingsForOwner(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size) {
-        return bookingService.getAllBookingsForOwner(userId, state, from, size);
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return withNextCursor(
+                bookingService.getAllBookingsForOwner(userId, state, from, size, cursor),
+                cursor, size);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsForOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                       @RequestParam(defaultValue = "ndjson") String format,
+                                       HttpServletResponse response) throws IOException {
+        BookingExportFormat exportFormat = BookingExportFormat.parse(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            bookingService.exportBookingsForOwner(userId, exportFormat, response.getOutputStream());
+        } catch (RuntimeException e) {
+            // drop the export content type so ErrorHandler can still answer with JSON
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<List<BookingResponseDto>> withNextCursor(
+            List<BookingResponseDto> bookings, String cursor, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (cursor != null && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER,
+                    BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.CustomValidationException;
+
+@Getter
+@RequiredArgsConstructor
+public enum BookingExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    public static BookingExportFormat parse(String format) {
+        for (BookingExportFormat f : values()) {
+            if (f.name().equalsIgnoreCase(format)) {
+                return f;
+            }
+        }
+        throw new CustomValidationException("Unknown export format: " + format);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingView;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes bookings to the output as they come off the stream, one NDJSON object or CSV record each.
+ * NDJSON lines have the same shape as the items of the booking lists.
+ */
+@Component
+public class BookingExporter {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId";
+    private static final String CSV_LINE_END = "\r\n";
+
+    private final ObjectWriter jsonWriter;
+
+    @Autowired
+    public BookingExporter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    public void write(Stream<BookingView> bookings, BookingExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == BookingExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write(CSV_LINE_END);
+        }
+        for (Iterator<BookingView> iterator = bookings.iterator(); iterator.hasNext(); ) {
+            BookingView booking = iterator.next();
+            if (format == BookingExportFormat.CSV) {
+                writeCsv(writer, booking);
+            } else {
+                writer.write(jsonWriter.writeValueAsString(BookingMapper.toBookingDto(booking)));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, BookingView booking) throws IOException {
+        writer.write(Long.toString(booking.getId()));
+        writer.write(',');
+        writer.write(booking.getStart().toString());
+        writer.write(',');
+        writer.write(booking.getEnd().toString());
+        writer.write(',');
+        writer.write(booking.getStatus().name());
+        writer.write(',');
+        writer.write(Long.toString(booking.getItemId()));
+        writer.write(',');
+        writer.write(csvField(booking.getItemName()));
+        writer.write(',');
+        writer.write(Long.toString(booking.getBookerId()));
+        writer.write(CSV_LINE_END);
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.exception.CustomValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of WAITING and APPROVED booking periods per item, as half-open [start, end) ranges.
+ * A period overlapping a new one starts before its end and less than the item's longest period before
+ * its start, so a check only walks that window: O(log n) plus the periods in it. Periods loaded from the
+ * database may overlap each other; the window still covers every one of them.
+ * The index is local to the server instance and is filled from the database once all singletons exist,
+ * before the web server starts taking requests.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<BookingPeriod> periods = bookingRepository.findPeriodsByStatusInAndEndAfter(
+                ACTIVE_STATUSES, LocalDateTime.now());
+        periods.forEach(p -> schedule(p.getItemId()).load(p.getStart(), p.getEnd()));
+        log.info("Booking interval index warmed up with {} active bookings", periods.size());
+    }
+
+    /**
+     * Reserves the period for the item or throws if it overlaps an active booking.
+     * Inside a transaction the reservation is dropped again if the transaction doesn't commit.
+     */
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSchedule schedule = schedule(itemId);
+        if (!schedule.tryReserve(start, end, LocalDateTime.now())) {
+            throw new CustomValidationException(String.format(
+                    "Item with id = %d is already booked for the period %s - %s.", itemId, start, end));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.release(start, end);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Frees the period of a booking that is no longer active, once the transaction commits.
+     */
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(itemId).release(start, end);
+                }
+            });
+        } else {
+            schedule(itemId).release(start, end);
+        }
+    }
+
+    private ItemSchedule schedule(Long itemId) {
+        return schedules.computeIfAbsent(itemId, id -> new ItemSchedule());
+    }
+
+    private static final class ItemSchedule {
+        // start -> end
+        private final NavigableMap<LocalDateTime, LocalDateTime> periods = new TreeMap<>();
+        private Duration longest = Duration.ZERO;
+
+        synchronized boolean tryReserve(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+            evictFinished(now);
+
+            LocalDateTime earliestStart = start.minus(longest);
+            for (LocalDateTime otherEnd : periods.subMap(earliestStart, false, end, false).values()) {
+                if (otherEnd.isAfter(start)) {
+                    return false;
+                }
+            }
+            put(start, end);
+            return true;
+        }
+
+        synchronized void load(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime loadedEnd = periods.get(start);
+            if (loadedEnd == null || end.isAfter(loadedEnd)) {
+                put(start, end);
+            }
+        }
+
+        synchronized void release(LocalDateTime start, LocalDateTime end) {
+            periods.remove(start, end);
+        }
+
+        private void put(LocalDateTime start, LocalDateTime end) {
+            periods.put(start, end);
+            Duration length = Duration.between(start, end);
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        private void evictFinished(LocalDateTime now) {
+            while (!periods.isEmpty() && !periods.firstEntry().getValue().isAfter(now)) {
+                periods.pollFirstEntry();
+            }
+        }
+    }
+}
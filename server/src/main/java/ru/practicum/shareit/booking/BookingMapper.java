@@ -18,6 +18,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingResponseDto toBookingDto(BookingView booking) {
+        return BookingResponseDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(new BookingItemDto(booking.getItemId(), booking.getItemName()))
+                .booker(new BookerDto(booking.getBookerId()))
+                .status(booking.getStatus().toString())
+                .build();
+    }
+
     public static BookingLastNextDto toBookingLastNextDto(Booking booking) {
         if (booking == null) {
             return null;
@@ -32,6 +43,20 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingLastNextDto toBookingLastNextDto(BookingLastNextView booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingLastNextDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus().toString())
+                .build();
+    }
+
     public static Booking toBooking(BookingRequestDto bookingRequestDto) {
         return Booking.builder()
                 .start(bookingRequestDto.getStart())
@@ -1,52 +1,174 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingLastNextView;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdOrderByStartDesc(Long bookerId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String BOOKING_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "from Booking b join b.item i ";
+
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findByIdInAndItemOwnerId(Collection<Long> ids, Long ownerId);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findViewsByBooker(Long bookerId, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findViewsByOwner(Long ownerId, Pageable pageable);
+
+    /**
+     * The owner's whole history, read through a cursor; needs an open transaction while the stream is consumed.
+     */
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 " +
+            "order by b.start, b.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<BookingView> streamViewsByOwner(Long ownerId);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findViewsByBookerAndStatus(
             Long bookerId, Status status, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findViewsByOwnerAndStatus(
             Long ownerId, Status status, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartLessThanEqualAndEndAfterOrderByStartAsc(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "order by b.start asc, b.id asc")
+    Slice<BookingView> findCurrentViewsByBooker(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartLessThanEqualAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start <= ?2 and b.end > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findCurrentViewsByOwner(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartIsAfterOrderByStartDesc(
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findFutureViewsByBooker(
             Long bookerId, LocalDateTime start, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsAfterOrderByStartDesc(
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findFutureViewsByOwner(
             Long ownerId, LocalDateTime start, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findPastViewsByBooker(
             Long bookerId, LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingView> findPastViewsByOwner(
             Long ownerId, LocalDateTime end, Pageable pageable);
 
-    Booking getFirstByItemIdAndStatusAndStartLessThanEqualOrderByStartDesc(
-            Long idItem, Status status, LocalDateTime now);
-
-    Booking getFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
-            Long idItem, Status status, LocalDateTime now);
+    // Keyset (seek) variants: ?2 and ?3 are the start and id of the last booking of the previous page.
+    // The redundant b.start bound is what lets the (..., start_date, id) indexes seek to the cursor;
+    // the OR alone is only a filter, applied to every row before it.
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findViewsByBookerBeforeCursor(
+            Long bookerId, LocalDateTime start, Long id, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findViewsByOwnerBeforeCursor(
+            Long ownerId, LocalDateTime start, Long id, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.status = ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findViewsByBookerAndStatusBeforeCursor(
+            Long bookerId, LocalDateTime start, Long id, Status status, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.status = ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findViewsByOwnerAndStatusBeforeCursor(
+            Long ownerId, LocalDateTime start, Long id, Status status, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start <= ?4 and b.end > ?4 " +
+            "and b.start >= ?2 and (b.start > ?2 or (b.start = ?2 and b.id > ?3)) " +
+            "order by b.start asc, b.id asc")
+    List<BookingView> findCurrentViewsByBookerAfterCursor(
+            Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start <= ?4 and b.end > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findCurrentViewsByOwnerBeforeCursor(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findFutureViewsByBookerBeforeCursor(
+            Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findFutureViewsByOwnerBeforeCursor(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.end < ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPastViewsByBookerBeforeCursor(
+            Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.end < ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPastViewsByOwnerBeforeCursor(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable limit);
+
+    // at most one last and one next booking per item; ties on start go to the higher id
+    @Query("select b.id as id, b.start as start, b.end as end, " +
+            "b.item.id as itemId, b.booker.id as bookerId, b.status as status " +
+            "from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 " +
+            "and (b.id = (select max(l.id) from Booking l where l.item.id = b.item.id and l.status = ?2 " +
+            "and l.start = (select max(l2.start) from Booking l2 " +
+            "where l2.item.id = b.item.id and l2.status = ?2 and l2.start <= ?3)) " +
+            "or b.id = (select max(n.id) from Booking n where n.item.id = b.item.id and n.status = ?2 " +
+            "and n.start = (select min(n2.start) from Booking n2 " +
+            "where n2.item.id = b.item.id and n2.status = ?2 and n2.start > ?3)))")
+    List<BookingLastNextView> findLastAndNextByItemIdIn(
+            Collection<Long> itemIds, Status status, LocalDateTime now);
 
     List<Booking> findByBookerIdAndItemIdAndEndBefore(
             Long userID, Long itemId, LocalDateTime end);
 
-    List<Booking> findByStatusAndItemInOrderByStartDesc(
-            Status status, List<Item> items);
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from Booking b " +
+            "where b.status in ?1 and b.end > ?2")
+    List<BookingPeriod> findPeriodsByStatusInAndEndAfter(List<Status> statuses, LocalDateTime end);
 }
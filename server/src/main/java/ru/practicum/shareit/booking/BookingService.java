@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BookingService {
@@ -10,11 +13,15 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long userID, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(Long userID, List<Long> bookingIds, Boolean approved);
+
     BookingResponseDto getBookingByIdByOwnerOrBooker(Long userID, Long bookingId);
 
     List<BookingResponseDto> getAllBookingsForOwner(
-            Long ownerId, String state, Integer from, Integer size);
+            Long ownerId, String state, Integer from, Integer size, String cursor);
+
+    void exportBookingsForOwner(Long ownerId, BookingExportFormat format, OutputStream out) throws IOException;
 
     List<BookingResponseDto> getAllBookingsForUser(Long userId, String state,
-                                                   Integer from, Integer size);
+                                                   Integer from, Integer size, String cursor);
 }
@@ -5,32 +5,50 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.RetryOnConflict;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.UserLookup;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingExporter bookingExporter;
 
     @Autowired
     public BookingServiceImpl(BookingRepository bookingRepository,
-                              UserRepository userRepository, ItemRepository itemRepository) {
+                              UserLookup userLookup, ItemRepository itemRepository,
+                              BookingIntervalIndex bookingIntervalIndex,
+                              BookingExporter bookingExporter) {
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
+        this.userLookup = userLookup;
         this.itemRepository = itemRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingExporter = bookingExporter;
     }
 
     @Override
@@ -38,18 +56,19 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponseDto addBooking(BookingRequestDto bookingRequestDto) {
         checkDates(bookingRequestDto.getStart(), bookingRequestDto.getEnd());
 
-        Booking booking = BookingMapper.toBooking(bookingRequestDto);
         Long itemId = bookingRequestDto.getItemId();
+        Booking booking = BookingMapper.toBooking(bookingRequestDto);
         booking.setItem(itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format(
                         "Item with id = %d doesn't exist.", itemId))));
 
         checkIfItemIsAvailable(booking);
         checkIfBookerIsNotOwner(bookingRequestDto, booking);
-
+        // only existing, bookable items get a schedule in the index
+        bookingIntervalIndex.reserve(itemId, bookingRequestDto.getStart(), bookingRequestDto.getEnd());
 
         Long bookerId = bookingRequestDto.getBookerId();
-        booking.setBooker(getUserById(bookerId));
+        booking.setBooker(userLookup.getReference(bookerId));
 
         booking.setStatus(Status.WAITING);
 
@@ -59,6 +78,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
+    @RetryOnConflict
     public BookingResponseDto approveBooking(Long userID, Long bookingId, Boolean approved) {
         Booking booking = getBookingById(bookingId);
 
@@ -66,23 +86,74 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("You are not the item's owner. " +
                     "The only owner allowed to approve the booking.");
         }
+        decide(booking, approved);
+        if (approved) {
+            itemRepository.incrementVersions(List.of(booking.getItem().getId()));
+        }
+
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict
+    public List<BookingDecisionResultDto> approveBookings(Long userID, List<Long> bookingIds, Boolean approved) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, Booking> owned = bookingRepository.findByIdInAndItemOwnerId(ids, userID).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(ids.size());
+        Set<Long> approvedItemIds = new HashSet<>();
+        for (Long id : ids) {
+            BookingDecisionResultDto.BookingDecisionResultDtoBuilder result = BookingDecisionResultDto.builder()
+                    .bookingId(id);
+            Booking booking = owned.get(id);
+            if (booking == null) {
+                result.error(String.format(
+                        "Booking with id = %d doesn't exist or you are not the item's owner.", id));
+            } else {
+                try {
+                    decide(booking, approved);
+                    if (approved) {
+                        approvedItemIds.add(booking.getItem().getId());
+                    }
+                    result.status(booking.getStatus().name());
+                } catch (CustomValidationException e) {
+                    result.status(booking.getStatus().name()).error(e.getMessage());
+                }
+            }
+            results.add(result.build());
+        }
+        // each item gets one version bump however many of its bookings were approved
+        if (!approvedItemIds.isEmpty()) {
+            itemRepository.incrementVersions(approvedItemIds);
+        }
+        return results;
+    }
+
+    private void decide(Booking booking, boolean approved) {
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new CustomValidationException("Booking already approved.");
         }
 
+        Long itemId = booking.getItem().getId();
         if (approved) {
+            if (booking.getStatus().equals(Status.REJECTED)) {
+                bookingIntervalIndex.reserve(itemId, booking.getStart(), booking.getEnd());
+            }
             booking.setStatus(Status.APPROVED);
         } else {
+            if (booking.getStatus().equals(Status.WAITING)) {
+                bookingIntervalIndex.release(itemId, booking.getStart(), booking.getEnd());
+            }
             booking.setStatus(Status.REJECTED);
         }
-
-        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingResponseDto getBookingByIdByOwnerOrBooker(Long userID, Long bookingId) {
         Booking booking = getBookingById(bookingId);
-        getUserById(userID);
+        userLookup.requireExists(userID);
 
         if ((booking.getBooker().getId() != userID)
                 && (booking.getItem().getOwner().getId() != userID)) {
@@ -93,88 +164,195 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getAllBookingsForOwner(
-            Long ownerId, String state, Integer from, Integer size) {
-        getUserById(ownerId);
+            Long ownerId, String state, Integer from, Integer size, String cursor) {
+        userLookup.requireExists(ownerId);
 
         StateForRequest stateForRequest = parseState(state);
+        LocalDateTime timeStampNow = LocalDateTime.now();
 
-        List<Booking> bookings = List.of();
+        List<BookingView> bookings;
+        if (cursor == null) {
+            bookings = findBookingsForOwner(ownerId, stateForRequest, timeStampNow,
+                    PageRequest.of(from / size, size));
+        } else if (cursor.isEmpty()) {
+            bookings = findBookingsForOwner(ownerId, stateForRequest, timeStampNow,
+                    PageRequest.of(0, size));
+        } else {
+            bookings = seekBookingsForOwner(ownerId, stateForRequest, timeStampNow,
+                    BookingCursor.decode(cursor), PageRequest.of(0, size));
+        }
+        return bookingsListToDtoList(bookings);
+    }
+
+    /**
+     * Rows go from the JDBC cursor straight to the output as projections, so nothing piles up
+     * in the persistence context however long the history is.
+     */
+    @Override
+    public void exportBookingsForOwner(Long ownerId, BookingExportFormat format, OutputStream out)
+            throws IOException {
+        userLookup.requireExists(ownerId);
+        try (Stream<BookingView> bookings = bookingRepository.streamViewsByOwner(ownerId)) {
+            bookingExporter.write(bookings, format, out);
+        }
+    }
+
+    @Override
+    public List<BookingResponseDto> getAllBookingsForUser(Long userId, String state,
+                                                          Integer from, Integer size, String cursor) {
+        userLookup.requireExists(userId);
+
+        StateForRequest stateForRequest = parseState(state);
         LocalDateTime timeStampNow = LocalDateTime.now();
-        Pageable page = PageRequest.of(from / size, size);
+
+        List<BookingView> bookings;
+        if (cursor == null) {
+            bookings = findBookingsForUser(userId, stateForRequest, timeStampNow,
+                    PageRequest.of(from / size, size));
+        } else if (cursor.isEmpty()) {
+            bookings = findBookingsForUser(userId, stateForRequest, timeStampNow,
+                    PageRequest.of(0, size));
+        } else {
+            bookings = seekBookingsForUser(userId, stateForRequest, timeStampNow,
+                    BookingCursor.decode(cursor), PageRequest.of(0, size));
+        }
+        return bookingsListToDtoList(bookings);
+    }
+
+    private List<BookingView> findBookingsForOwner(Long ownerId, StateForRequest stateForRequest,
+                                               LocalDateTime timeStampNow, Pageable page) {
+        List<BookingView> bookings = List.of();
 
         switch (stateForRequest) {
             case ALL:
-                bookings = bookingRepository
-                        .findByItemOwnerIdOrderByStartDesc(ownerId, page).getContent();
+                bookings = bookingRepository.findViewsByOwner(ownerId, page).getContent();
                 break;
             case CURRENT:
-                bookings = bookingRepository
-                        .findByItemOwnerIdAndStartLessThanEqualAndEndAfterOrderByStartDesc(
-                                ownerId, timeStampNow, timeStampNow, page).getContent();
+                bookings = bookingRepository.findCurrentViewsByOwner(
+                        ownerId, timeStampNow, page).getContent();
                 break;
             case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(
+                bookings = bookingRepository.findPastViewsByOwner(
                         ownerId, timeStampNow, page).getContent();
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsAfterOrderByStartDesc(
+                bookings = bookingRepository.findFutureViewsByOwner(
                         ownerId, timeStampNow, page).getContent();
                 break;
             case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
+                bookings = bookingRepository.findViewsByOwnerAndStatus(
                         ownerId, Status.WAITING, page).getContent();
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
+                bookings = bookingRepository.findViewsByOwnerAndStatus(
                         ownerId, Status.REJECTED, page).getContent();
                 break;
         }
-        return bookingsListToDtoList(bookings);
+        return bookings;
     }
 
-    @Override
-    public List<BookingResponseDto> getAllBookingsForUser(Long userId, String state,
-                                                          Integer from, Integer size) {
-        getUserById(userId);
-
-        StateForRequest stateForRequest = parseState(state);
+    private List<BookingView> seekBookingsForOwner(Long ownerId, StateForRequest stateForRequest,
+                                               LocalDateTime timeStampNow, BookingCursor cursor,
+                                               Pageable limit) {
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+        List<BookingView> bookings = List.of();
 
-        List<Booking> bookings = List.of();
-        LocalDateTime timeStampNow = LocalDateTime.now();
+        switch (stateForRequest) {
+            case ALL:
+                bookings = bookingRepository.findViewsByOwnerBeforeCursor(
+                        ownerId, start, id, limit);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentViewsByOwnerBeforeCursor(
+                        ownerId, start, id, timeStampNow, limit);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastViewsByOwnerBeforeCursor(
+                        ownerId, start, id, timeStampNow, limit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureViewsByOwnerBeforeCursor(
+                        ownerId, start, id, timeStampNow, limit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findViewsByOwnerAndStatusBeforeCursor(
+                        ownerId, start, id, Status.WAITING, limit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findViewsByOwnerAndStatusBeforeCursor(
+                        ownerId, start, id, Status.REJECTED, limit);
+                break;
+        }
+        return bookings;
+    }
 
-        Pageable page = PageRequest.of(from / size, size);
+    private List<BookingView> findBookingsForUser(Long userId, StateForRequest stateForRequest,
+                                              LocalDateTime timeStampNow, Pageable page) {
+        List<BookingView> bookings = List.of();
 
         switch (stateForRequest) {
             case ALL:
-                bookings = bookingRepository
-                        .findByBookerIdOrderByStartDesc(userId, page).getContent();
+                bookings = bookingRepository.findViewsByBooker(userId, page).getContent();
                 break;
             case CURRENT:
-                bookings = bookingRepository
-                        // .findByBookerIdAndStartLessThanEqualAndEndAfterOrderByStartDesc(
-                        .findByBookerIdAndStartLessThanEqualAndEndAfterOrderByStartAsc(
-                                userId, timeStampNow, timeStampNow, page).getContent();
+                bookings = bookingRepository.findCurrentViewsByBooker(
+                        userId, timeStampNow, page).getContent();
                 break;
             case PAST:
-                bookings = bookingRepository
-                        .findByBookerIdAndEndBeforeOrderByStartDesc(
-                                userId, timeStampNow, page).getContent();
+                bookings = bookingRepository.findPastViewsByBooker(
+                        userId, timeStampNow, page).getContent();
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartIsAfterOrderByStartDesc(
+                bookings = bookingRepository.findFutureViewsByBooker(
                         userId, timeStampNow, page).getContent();
                 break;
             case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
+                bookings = bookingRepository.findViewsByBookerAndStatus(
                         userId, Status.WAITING, page).getContent();
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
+                bookings = bookingRepository.findViewsByBookerAndStatus(
                         userId, Status.REJECTED, page).getContent();
                 break;
+        }
+        return bookings;
+    }
 
+    private List<BookingView> seekBookingsForUser(Long userId, StateForRequest stateForRequest,
+                                              LocalDateTime timeStampNow, BookingCursor cursor,
+                                              Pageable limit) {
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+        List<BookingView> bookings = List.of();
+
+        switch (stateForRequest) {
+            case ALL:
+                bookings = bookingRepository.findViewsByBookerBeforeCursor(
+                        userId, start, id, limit);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentViewsByBookerAfterCursor(
+                        userId, start, id, timeStampNow, limit);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastViewsByBookerBeforeCursor(
+                        userId, start, id, timeStampNow, limit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureViewsByBookerBeforeCursor(
+                        userId, start, id, timeStampNow, limit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findViewsByBookerAndStatusBeforeCursor(
+                        userId, start, id, Status.WAITING, limit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findViewsByBookerAndStatusBeforeCursor(
+                        userId, start, id, Status.REJECTED, limit);
+                break;
         }
-        return bookingsListToDtoList(bookings);
+        return bookings;
     }
 
     private Booking getBookingById(long bookingId) {
@@ -208,12 +386,6 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format(
-                        "User with id = %d doesn't exist.", userId)));
-    }
-
     private StateForRequest parseState(String state) {
 
         for (StateForRequest s : StateForRequest.values()) {
@@ -224,7 +396,7 @@ public class BookingServiceImpl implements BookingService {
         throw new CustomValidationException("Unknown state: " + state);
     }
 
-    private static List<BookingResponseDto> bookingsListToDtoList(List<Booking> bookings) {
+    private static List<BookingResponseDto> bookingsListToDtoList(List<BookingView> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of one booking in a batch approval: its new status, or why it was left unchanged.
+ */
+@Value
+@Builder
+public class BookingDecisionResultDto {
+    Long bookingId;
+    String status;
+    String error;
+}
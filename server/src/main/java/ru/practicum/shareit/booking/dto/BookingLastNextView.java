@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingLastNextView {
+    long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Status getStatus();
+}
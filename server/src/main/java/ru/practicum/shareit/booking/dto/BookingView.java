@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the booking lists, selected with a JPQL constructor expression.
+ */
+@Value
+public class BookingView {
+    long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+    long itemId;
+    String itemName;
+    long bookerId;
+}
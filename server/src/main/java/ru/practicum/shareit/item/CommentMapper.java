@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -23,13 +24,22 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentResponseDto toCommentDto(CommentView comment) {
+        return CommentResponseDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .authorName(comment.getAuthorName())
+                .build();
+    }
+
     public static Comment toComment(CommentRequestDto commentRequestDto) {
         return Comment.builder()
                 .text(commentRequestDto.getText())
                 .build();
     }
 
-    public static List<CommentResponseDto> toCommentDtoList(List<Comment> comments) {
+    public static List<CommentResponseDto> toCommentDtoList(List<CommentView> comments) {
         if (comments == null) {
             return null;
         }
@@ -1,14 +1,21 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findCommentsByItemId(Long itemId);
+    String COMMENT_VIEW = "select new ru.practicum.shareit.item.dto.CommentView(" +
+            "c.id, c.item.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a ";
 
-    List<Comment> findByItemIn(List<Item> items, Sort sort);
+    @Query(COMMENT_VIEW + "where c.item.id = ?1")
+    List<CommentView> findCommentsByItemId(Long itemId);
+
+    @Query(COMMENT_VIEW + "where c.item.id in ?1 order by c.created desc")
+    List<CommentView> findByItemIdIn(Collection<Long> itemIds);
 }
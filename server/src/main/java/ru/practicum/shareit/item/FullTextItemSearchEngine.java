@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Postgres full-text search over the GIN-indexed items.search_vector column.
+ * Every word of the text is matched as a prefix, results are ordered by ts_rank.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "full-text")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    public FullTextItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        List<String> tokens = ItemSearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        String tsQuery = tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return itemRepository.searchItemsByFullText(tsQuery, PageRequest.of(from / size, size));
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index of item names and descriptions kept in the server's memory.
+ * Meant for H2 and test profiles, where Postgres full-text search isn't available.
+ * Words are matched as prefixes; name matches and exact word matches score higher.
+ * The index is built from the database once all singletons exist, before the web server takes requests.
+ * Every entry keeps the item version it was built from, and an older version never replaces a newer one.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // token -> item id -> weight
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+
+    @Autowired
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * The snapshot only fills in items the index doesn't have at the same or a later version.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Item> items = itemRepository.findAll();
+        putAll(items.stream().map(PendingItem::of).collect(Collectors.toList()), false);
+        log.info("In-memory item search index built for {} items", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        List<String> terms = ItemSearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Map<Long, Integer> termScores = new HashMap<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, true).forEach((token, weights) -> {
+                    int factor = token.equals(term) ? EXACT_MATCH_FACTOR : 1;
+                    weights.forEach((id, weight) -> termScores.merge(id, weight * factor, Math::max));
+                });
+                termScores.forEach((id, score) -> {
+                    if (documents.get(id).available) {
+                        scores.merge(id, score, Integer::sum);
+                        matchedTerms.merge(id, 1, Integer::sum);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = scores.entrySet().stream()
+                .filter(e -> matchedTerms.get(e.getKey()) == terms.size())
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip((long) from / size * size)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        index(List.of(item));
+    }
+
+    /**
+     * Items are tokenized right away, so the entities aren't held on to. Within a transaction the results
+     * wait in one list bound to it and are published together after commit, however many batches it indexes.
+     */
+    @Override
+    public void index(Collection<Item> items) {
+        List<PendingItem> tokenized = items.stream()
+                .map(PendingItem::of)
+                .collect(Collectors.toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().addAll(tokenized);
+        } else {
+            putAll(tokenized, true);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingItem> pendingInTransaction() {
+        List<PendingItem> pending = (List<PendingItem>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<PendingItem> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putAll(created, true);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryItemSearchEngine.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    /**
+     * Items are tokenized before their transaction flushes, so an update carries the version it started from;
+     * {@code replaceSameVersion} lets such an update replace the entry it was based on.
+     */
+    private void putAll(List<PendingItem> items, boolean replaceSameVersion) {
+        lock.writeLock().lock();
+        try {
+            for (PendingItem item : items) {
+                IndexedItem indexed = documents.get(item.id);
+                if (indexed != null && (indexed.version > item.version
+                        || indexed.version == item.version && !replaceSameVersion)) {
+                    continue;
+                }
+                remove(item.id);
+                item.weights.forEach((token, weight) -> postings
+                        .computeIfAbsent(token, t -> new HashMap<>())
+                        .put(item.id, weight));
+                documents.put(item.id, new IndexedItem(item.weights.keySet(), item.available, item.version));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long itemId) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.tokens) {
+            Map<Long, Integer> weights = postings.get(token);
+            weights.remove(itemId);
+            if (weights.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private static final class PendingItem {
+        private final long id;
+        private final Map<String, Integer> weights;
+        private final boolean available;
+        private final long version;
+
+        private PendingItem(long id, Map<String, Integer> weights, boolean available, long version) {
+            this.id = id;
+            this.weights = weights;
+            this.available = available;
+            this.version = version;
+        }
+
+        private static PendingItem of(Item item) {
+            Map<String, Integer> weights = new HashMap<>();
+            ItemSearchTokenizer.tokenize(item.getName())
+                    .forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+            ItemSearchTokenizer.tokenize(item.getDescription())
+                    .forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+            return new PendingItem(item.getId(), weights, Boolean.TRUE.equals(item.getAvailable()), item.getVersion());
+        }
+    }
+
+    private static final class IndexedItem {
+        private final Set<String> tokens;
+        private final boolean available;
+        private final long version;
+
+        private IndexedItem(Set<String> tokens, boolean available, long version) {
+            this.tokens = tokens;
+            this.available = available;
+            this.version = version;
+        }
+    }
+}
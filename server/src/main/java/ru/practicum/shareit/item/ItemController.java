@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingLastNextDto;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -27,6 +36,13 @@ public class ItemController {
         return itemService.addItem(itemDto, userID);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItems(@RequestHeader(USER_ID_HEADER) Long userID,
+                                           InputStream ndjson) throws IOException {
+        return itemService.importItems(userID,
+                new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8)));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader(USER_ID_HEADER) Long userID,
                               @PathVariable long itemId,
@@ -35,10 +51,13 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithLastAndNextBookingsAndCommentsDto getItem(
+    public ResponseEntity<ItemWithLastAndNextBookingsAndCommentsDto> getItem(
             @RequestHeader(USER_ID_HEADER) Long userID,
             @PathVariable long itemId) {
-        return itemService.getItemByID(itemId, userID);
+        ItemWithLastAndNextBookingsAndCommentsDto item = itemService.getItemByID(itemId, userID);
+        return ResponseEntity.ok()
+                .eTag(eTag(item))
+                .body(item);
     }
 
     @GetMapping
@@ -64,4 +83,21 @@ public class ItemController {
         return itemService.addCommentToItem(itemId, userID, commentRequestDto);
     }
 
+    /**
+     * The item's version covers its own fields and approvals; which booking is last and which is next also
+     * changes with time, so their ids are part of the tag. Comments are rendered with their authors' current
+     * names, which no item version tracks, so the tag ends with their count, the newest id and a hash of them
+     * as rendered.
+     */
+    private static String eTag(ItemWithLastAndNextBookingsAndCommentsDto item) {
+        List<CommentResponseDto> comments = item.getComments() == null ? List.of() : item.getComments();
+        long lastCommentId = comments.stream().mapToLong(CommentResponseDto::getId).max().orElse(0);
+        return item.getVersion() + "-" + bookingId(item.getLastBooking()) + "-" + bookingId(item.getNextBooking())
+                + "-" + comments.size() + "-" + lastCommentId + "-" + Integer.toHexString(comments.hashCode());
+    }
+
+    private static String bookingId(BookingLastNextDto booking) {
+        return booking == null ? "" : String.valueOf(booking.getId());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.RetryOnConflict;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserLookup;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Saves one batch of an item import in its own transaction. The batch is already parsed and held in memory,
+ * so a transaction that lost an optimistic locking race can be rerun with the same items.
+ */
+@Component
+public class ItemImportWriter {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final UserLookup userLookup;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ItemImportWriter(ItemRepository itemRepository,
+                            ItemRequestRepository itemRequestRepository,
+                            ItemSearchEngine itemSearchEngine,
+                            UserLookup userLookup,
+                            EntityManager entityManager) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.userLookup = userLookup;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Clears the persistence context afterwards, which an open-in-view request keeps across batches.
+     */
+    @Transactional
+    @RetryOnConflict
+    public int save(List<ItemDto> batch, Long userID) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        User owner = userLookup.getReference(userID);
+        Set<Long> requestIds = batch.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        // a forced increment would be lost with the requests when the context is cleared below
+        if (!requests.isEmpty()) {
+            itemRequestRepository.incrementVersions(requests.keySet());
+        }
+
+        List<Item> items = new ArrayList<>(batch.size());
+        for (ItemDto itemDto : batch) {
+            Item item = ItemMapper.toItem(itemDto);
+            item.setOwner(owner);
+            item.setRequest(requests.get(itemDto.getRequestId()));
+            items.add(item);
+        }
+        itemSearchEngine.index(itemRepository.saveAll(items));
+        entityManager.flush();
+        entityManager.clear();
+        return items.size();
+    }
+}
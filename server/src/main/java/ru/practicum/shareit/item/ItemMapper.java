@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingLastNextDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -22,6 +23,30 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    public static ItemWithLastAndNextBookingsAndCommentsDto toItemWithLastNextDatesAndCommentsDto(
+            ItemView item, BookingLastNextDto lastBooking, BookingLastNextDto nextBooking,
+            List<CommentResponseDto> commentsDto) {
+        return ItemWithLastAndNextBookingsAndCommentsDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .comments(commentsDto)
+                .build();
+    }
+
     public static ItemWithLastAndNextBookingsAndCommentsDto toItemWithLastNextDatesAndCommentsDto(
             Item item, BookingLastNextDto lastBooking, BookingLastNextDto nextBooking,
             List<CommentResponseDto> commentsDto) {
@@ -33,6 +58,7 @@ public class ItemMapper {
                 .lastBooking(lastBooking)
                 .nextBooking(nextBooking)
                 .comments(commentsDto)
+                .version(item.getVersion())
                 .build();
     }
 
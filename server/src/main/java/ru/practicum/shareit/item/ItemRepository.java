@@ -1,18 +1,64 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.VersionedRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
+
+public interface ItemRepository extends JpaRepository<Item, Long>, VersionedRepository<Item> {
+    String ITEM_VIEW = "select new ru.practicum.shareit.item.dto.ItemView(" +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "from Item i ";
+
+    /**
+     * The item page in one statement: the item joined to its last (started by ?3) and next booking in status ?2,
+     * so one row per booking found, or a single row without a booking. Ties on start go to the higher id.
+     */
+    @Query("select i as item, b as booking from Item i " +
+            "left join Booking b on b.item = i and b.status = ?2 " +
+            "where i.id = ?1 and (b.id is null " +
+            "or b.id = (select max(l.id) from Booking l where l.item.id = ?1 and l.status = ?2 " +
+            "and l.start = (select max(l2.start) from Booking l2 " +
+            "where l2.item.id = ?1 and l2.status = ?2 and l2.start <= ?3)) " +
+            "or b.id = (select max(n.id) from Booking n where n.item.id = ?1 and n.status = ?2 " +
+            "and n.start = (select min(n2.start) from Booking n2 " +
+            "where n2.item.id = ?1 and n2.status = ?2 and n2.start > ?3)))")
+    List<ItemWithBookingView> findWithLastAndNextBookings(Long itemId, Status status, LocalDateTime now);
+
+    @Query(ITEM_VIEW + "where i.owner.id = ?1 order by i.id asc")
+    Slice<ItemView> findByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
+
+    @Query(ITEM_VIEW + "where i.request.id in ?1 order by i.id asc")
+    List<ItemView> findByRequestIdInOrderByIdAsc(Collection<Long> requestIds);
 
     @Query("select itm from Item itm " +
             "where itm.available = TRUE " +
             "and (lower(itm.name) like lower(concat('%', ?1,'%')) " +
             "or lower(itm.description) like lower(lower(concat('%', ?1,'%'))))")
-    Page<Item> searchItemsByText(String text, Pageable pageable);
+    Slice<Item> searchItemsByText(String text, Pageable pageable);
+
+    @Query(value = "select i.* from items i " +
+            "where i.is_available and i.search_vector @@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchItemsByFullText(String tsQuery, Pageable pageable);
+
+    /**
+     * Bumps the version of every item in one UPDATE, after flushing pending changes.
+     * Items already loaded keep their old version in memory.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.version = i.version + 1 where i.id in ?1")
+    int incrementVersions(Collection<Long> itemIds);
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    /**
+     * Available items matching every word of the text, most relevant first.
+     */
+    List<Item> search(String text, Integer from, Integer size);
+
+    /**
+     * Called after an item is created or updated, for engines that keep their own index.
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * {@link #index(Item)} for a batch of items saved together.
+     */
+    default void index(Collection<Item> items) {
+        items.forEach(this::index);
+    }
+}
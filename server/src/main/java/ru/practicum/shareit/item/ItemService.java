@@ -3,13 +3,18 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(ItemDto itemDto, Long userID);
 
+    ItemImportResultDto importItems(Long userID, BufferedReader ndjson) throws IOException;
+
     ItemDto updateItem(ItemDto itemDto, Long userID);
 
     ItemWithLastAndNextBookingsAndCommentsDto getItemByID(long itemId, Long userID);
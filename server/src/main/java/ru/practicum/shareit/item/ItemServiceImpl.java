@@ -1,28 +1,41 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.RetryOnConflict;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingLastNextDto;
+import ru.practicum.shareit.booking.dto.BookingLastNextView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UpdateForbiddenException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingView;
 import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
-import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.UserLookup;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -33,44 +46,61 @@ import static java.util.stream.Collectors.groupingBy;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemImportWriter itemImportWriter;
+    private final ObjectReader itemDtoReader;
+    private final int importBatchSize;
 
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository,
-                           UserRepository userRepository,
+                           UserLookup userLookup,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemSearchEngine itemSearchEngine,
+                           ItemImportWriter itemImportWriter,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.item-import.batch-size}") int importBatchSize) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userLookup = userLookup;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemImportWriter = itemImportWriter;
+        this.itemDtoReader = objectMapper.readerFor(ItemDto.class);
+        this.importBatchSize = importBatchSize;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict
     public ItemDto addItem(ItemDto itemDto, Long userID) {
-        User user = getUser(userID);
-
         Item item = ItemMapper.toItem(itemDto);
-        item.setOwner(user);
+        item.setOwner(userLookup.getReference(userID));
 
         if (itemDto.getRequestId() != null) {
             item.setRequest(itemRequestRepository
                     .findById(itemDto.getRequestId())
                     .orElse(null));
+            if (item.getRequest() != null) {
+                itemRequestRepository.incrementVersion(item.getRequest());
+            }
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item itemSaved = itemRepository.save(item);
+        itemSearchEngine.index(itemSaved);
+        return ItemMapper.toItemDto(itemSaved);
     }
 
     @Override
     @Transactional
+    @RetryOnConflict
     public ItemDto updateItem(ItemDto itemDto, Long userID) {
         Item item = getItem(itemDto.getId());
 
@@ -81,22 +111,87 @@ public class ItemServiceImpl implements ItemService {
         validateOwner(userID, item);
 
         setUpdate(item, nameUpdate, descriptionUpdate, availableUpdate);
+        if (item.getRequest() != null) {
+            itemRequestRepository.incrementVersion(item.getRequest());
+        }
+        itemSearchEngine.index(item);
 
         return ItemMapper.toItemDto(item);
     }
 
+    /**
+     * Reads one item per line and saves them {@code importBatchSize} at a time, each batch in its own
+     * transaction through {@link ItemImportWriter}, so memory doesn't grow with the input. The body can only
+     * be read once, so conflicts are retried per batch there; a failing batch leaves the earlier ones saved.
+     * Blank lines are counted but skipped; the gateway blanks out lines it rejected.
+     * Only the first {@link ItemImportResultDto#MAX_ERRORS} failed lines are reported.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResultDto importItems(Long userID, BufferedReader ndjson) throws IOException {
+        userLookup.requireExists(userID);
+
+        List<ItemDto> batch = new ArrayList<>(importBatchSize);
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        int imported = 0;
+        int failed = 0;
+        long line = 0;
+        for (String json = ndjson.readLine(); json != null; json = ndjson.readLine()) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(parseImportedItem(json));
+            } catch (CustomValidationException e) {
+                if (++failed <= ItemImportResultDto.MAX_ERRORS) {
+                    errors.add(ItemImportErrorDto.builder().line(line).error(e.getMessage()).build());
+                }
+            }
+            if (batch.size() == importBatchSize) {
+                imported += itemImportWriter.save(batch, userID);
+                batch.clear();
+            }
+        }
+        imported += itemImportWriter.save(batch, userID);
+
+        return ItemImportResultDto.builder()
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+    }
+
     @Override
     public ItemWithLastAndNextBookingsAndCommentsDto getItemByID(long itemId, Long userId) {
-        getUser(userId);
-        Item item = getItem(itemId);
+        userLookup.requireExists(userId);
+        LocalDateTime timeStamp = LocalDateTime.now();
+        List<ItemWithBookingView> rows = itemRepository.findWithLastAndNextBookings(
+                itemId, Status.APPROVED, timeStamp);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("There's no item with id = " + itemId);
+        }
+        Item item = rows.get(0).getItem();
 
+        BookingLastNextDto lastBooking = null;
+        BookingLastNextDto nextBooking = null;
         if (item.getOwner().getId() == userId) {
-            return getItemWithLastAndNextBookingsDto(item, LocalDateTime.now());
+            for (ItemWithBookingView row : rows) {
+                Booking booking = row.getBooking();
+                if (booking == null) {
+                    continue;
+                }
+                if (booking.getStart().isAfter(timeStamp)) {
+                    nextBooking = BookingMapper.toBookingLastNextDto(booking);
+                } else {
+                    lastBooking = BookingMapper.toBookingLastNextDto(booking);
+                }
+            }
         }
-        List<Comment> comments = commentRepository.findCommentsByItemId(itemId);
+        List<CommentView> comments = commentRepository.findCommentsByItemId(itemId);
 
         return ItemMapper.toItemWithLastNextDatesAndCommentsDto(
-                item, null, null,
+                item, lastBooking, nextBooking,
                 CommentMapper.toCommentDtoList(comments));
     }
 
@@ -106,22 +201,34 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable page = PageRequest.of(from / size, size);
 
-        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(userID, page).getContent();
+        List<ItemView> items = itemRepository.findByOwnerIdOrderByIdAsc(userID, page).getContent();
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime timeStamp = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                .map(ItemView::getId)
+                .collect(Collectors.toList());
 
-        Map<Long, List<Booking>> bookings = bookingRepository
-                .findByStatusAndItemInOrderByStartDesc(Status.APPROVED, items)
+        Map<Long, List<BookingLastNextView>> bookings = bookingRepository
+                .findLastAndNextByItemIdIn(itemIds, Status.APPROVED, timeStamp)
                 .stream()
-                .collect(groupingBy(b -> b.getItem().getId()));
+                .collect(groupingBy(BookingLastNextView::getItemId));
 
-        Map<Long, List<Comment>> comments = commentRepository
-                .findByItemIn(items, Sort.by(Sort.Direction.DESC, "created"))
+        Map<Long, List<CommentView>> comments = commentRepository
+                .findByItemIdIn(itemIds)
                 .stream()
-                .collect(groupingBy(c -> c.getItem().getId()));
+                .collect(groupingBy(CommentView::getItemId));
 
-        LocalDateTime timeStamp = LocalDateTime.now();
         return items.stream()
-                .map(i -> getItemWithLastAndNextBookingsDtoLocal(
-                        i, bookings, comments, timeStamp))
+                .map(i -> {
+                    List<BookingLastNextView> itemBookings = bookings.getOrDefault(i.getId(), List.of());
+                    return ItemMapper.toItemWithLastNextDatesAndCommentsDto(i,
+                            lastBooking(itemBookings, timeStamp),
+                            nextBooking(itemBookings, timeStamp),
+                            CommentMapper.toCommentDtoList(comments.getOrDefault(i.getId(), List.of())));
+                })
                 .collect(Collectors.toList());
     }
 
@@ -130,14 +237,14 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return List.of();
         }
-        List<Item> itemsFound = itemRepository.searchItemsByText(text,
-                PageRequest.of(from / size, size)).getContent();
+        List<Item> itemsFound = itemSearchEngine.search(text, from, size);
 
         return itemsListToDtoList(itemsFound);
     }
 
     @Override
     @Transactional
+    @RetryOnConflict
     public CommentResponseDto addCommentToItem(Long itemId, Long userID,
                                                CommentRequestDto commentRequestDto) {
         LocalDateTime timeStamp = LocalDateTime.now();
@@ -145,13 +252,30 @@ public class ItemServiceImpl implements ItemService {
         checkIfUserCanComment(userID, itemId, timeStamp);
 
         Comment comment = CommentMapper.toComment(commentRequestDto);
-        comment.setItem(getItem(itemId));
-        comment.setAuthor(getUser(userID));
+        Item item = getItem(itemId);
+        itemRepository.incrementVersion(item);
+        comment.setItem(item);
+        comment.setAuthor(userLookup.getReference(userID));
         comment.setCreated(timeStamp);
 
         return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 
+    private ItemDto parseImportedItem(String json) {
+        ItemDto itemDto;
+        try {
+            itemDto = itemDtoReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new CustomValidationException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()
+                || itemDto.getDescription() == null || itemDto.getDescription().isBlank()
+                || itemDto.getAvailable() == null) {
+            throw new CustomValidationException("Item name, description and available are required");
+        }
+        return itemDto;
+    }
+
     private void checkIfUserCanComment(Long userID, Long itemId, LocalDateTime timeStamp) {
         List<Booking> bookings = bookingRepository.findByBookerIdAndItemIdAndEndBefore(
                 userID, itemId, timeStamp);
@@ -161,46 +285,24 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private ItemWithLastAndNextBookingsAndCommentsDto getItemWithLastAndNextBookingsDto(
-            Item item, LocalDateTime timeStamp) {
-        Booking lastBooking = bookingRepository
-                .getFirstByItemIdAndStatusAndStartLessThanEqualOrderByStartDesc(
-                        item.getId(), Status.APPROVED, timeStamp);
-
-        Booking nextBooking = bookingRepository
-                .getFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
-                        item.getId(), Status.APPROVED, timeStamp);
-
-        List<Comment> comments = commentRepository.findCommentsByItemId(item.getId());
-
-        return ItemMapper.toItemWithLastNextDatesAndCommentsDto(item,
-                BookingMapper.toBookingLastNextDto(lastBooking),
-                BookingMapper.toBookingLastNextDto(nextBooking),
-                CommentMapper.toCommentDtoList(comments));
+    private static BookingLastNextDto lastBooking(List<BookingLastNextView> bookings,
+                                                  LocalDateTime timeStamp) {
+        for (BookingLastNextView booking : bookings) {
+            if (!booking.getStart().isAfter(timeStamp)) {
+                return BookingMapper.toBookingLastNextDto(booking);
+            }
+        }
+        return null;
     }
 
-    private ItemWithLastAndNextBookingsAndCommentsDto getItemWithLastAndNextBookingsDtoLocal(
-            Item item, Map<Long, List<Booking>> bookings, Map<Long,
-            List<Comment>> comments, LocalDateTime timeStamp) {
-        Long itemId = item.getId();
-
-        Booking lastBooking = bookings.getOrDefault(itemId, List.of())
-                .stream()
-                .filter(b -> !b.getStart().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
-
-        Booking nextBooking = bookings.getOrDefault(itemId, List.of())
-                .stream()
-                .filter(b -> b.getStart().isAfter(timeStamp))
-                .reduce((b1, b2) -> b2)
-                .orElse(null);
-
-        return ItemMapper.toItemWithLastNextDatesAndCommentsDto(item,
-                BookingMapper.toBookingLastNextDto(lastBooking),
-                BookingMapper.toBookingLastNextDto(nextBooking),
-                CommentMapper.toCommentDtoList(
-                        comments.getOrDefault(itemId, List.of())));
+    private static BookingLastNextDto nextBooking(List<BookingLastNextView> bookings,
+                                                  LocalDateTime timeStamp) {
+        for (BookingLastNextView booking : bookings) {
+            if (booking.getStart().isAfter(timeStamp)) {
+                return BookingMapper.toBookingLastNextDto(booking);
+            }
+        }
+        return null;
     }
 
     private static List<ItemDto> itemsListToDtoList(List<Item> items) {
@@ -215,12 +317,6 @@ public class ItemServiceImpl implements ItemService {
                         "There's no item with id = " + itemId));
     }
 
-    private User getUser(Long userID) {
-        return userRepository.findById(userID).orElseThrow(
-                () -> new NotFoundException(String.format(
-                        "User with id = %d doesn't exist", userID)));
-    }
-
     private static void validateOwner(Long userID, Item item) {
         if (userID == null) {
             throw new CustomValidationException("Owner id is empty.");
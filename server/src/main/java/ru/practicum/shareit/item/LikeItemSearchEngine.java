@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    public LikeItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        return itemRepository.searchItemsByText(text, PageRequest.of(from / size, size)).getContent();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only comment row with its author's name, selected with a JPQL constructor expression.
+ */
+@Value
+public class CommentView {
+    long id;
+    long itemId;
+    String text;
+    String authorName;
+    LocalDateTime created;
+}
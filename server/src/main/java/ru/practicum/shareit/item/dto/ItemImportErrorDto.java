@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A line of an NDJSON import that was skipped, numbered from 1.
+ */
+@Value
+@Builder
+public class ItemImportErrorDto {
+    long line;
+    String error;
+}
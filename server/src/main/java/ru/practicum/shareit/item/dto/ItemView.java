@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Read-only item row for lists, selected with a JPQL constructor expression.
+ */
+@Value
+public class ItemView {
+    long id;
+    String name;
+    String description;
+    Boolean available;
+    Long requestId;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * One row of the item page query: the item and one of its last/next bookings, or no booking at all.
+ */
+public interface ItemWithBookingView {
+    Item getItem();
+
+    Booking getBooking();
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import ru.practicum.shareit.booking.dto.BookingLastNextDto;
 
 import java.util.List;
 
+@JsonIgnoreProperties("version")
 @Data
 @AllArgsConstructor
 @Builder
@@ -18,4 +20,5 @@ public class ItemWithLastAndNextBookingsAndCommentsDto {
     private BookingLastNextDto lastBooking;
     private BookingLastNextDto nextBooking;
     private List<CommentResponseDto> comments;
+    private long version;
 }
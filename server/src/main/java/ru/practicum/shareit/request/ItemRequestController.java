@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
@@ -42,9 +43,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestResponseDto getRequestById(
+    public ResponseEntity<ItemRequestResponseDto> getRequestById(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @PathVariable Long requestId) {
-        return itemRequestService.getRequestById(userId, requestId);
+        ItemRequestResponseDto request = itemRequestService.getRequestById(userId, requestId);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(request.getVersion()))
+                .body(request);
     }
 }
@@ -3,11 +3,14 @@ package ru.practicum.shareit.request;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -15,16 +18,23 @@ import java.util.stream.Collectors;
 public class ItemRequestMapper {
     public static ItemRequestResponseDto toItemRequestResponseDto(
             ItemRequest itemRequest) {
+        return toItemRequestResponseDto(itemRequest,
+                Optional.ofNullable(itemRequest.getItems())
+                        .orElse(List.of())
+                        .stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()));
+    }
+
+    public static ItemRequestResponseDto toItemRequestResponseDto(
+            ItemRequest itemRequest, List<ItemDto> items) {
         return ItemRequestResponseDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .requesterId(itemRequest.getRequester().getId())
                 .created(itemRequest.getCreated())
-                .items(Optional.ofNullable(itemRequest.getItems())
-                        .orElse(List.of())
-                        .stream()
-                        .map(ItemMapper::toItemDto)
-                        .collect(Collectors.toList()))
+                .items(items)
+                .version(itemRequest.getVersion())
                 .build();
     }
 
@@ -36,9 +46,13 @@ public class ItemRequestMapper {
     }
 
     public static List<ItemRequestResponseDto> toItemRequestDtoList(
-            List<ItemRequest> itemRequests) {
+            List<ItemRequest> itemRequests, Map<Long, List<ItemView>> itemsByRequestId) {
         return itemRequests.stream()
-                .map(ItemRequestMapper::toItemRequestResponseDto)
+                .map(r -> toItemRequestResponseDto(r,
+                        itemsByRequestId.getOrDefault(r.getId(), List.of())
+                                .stream()
+                                .map(ItemMapper::toItemDto)
+                                .collect(Collectors.toList())))
                 .collect(Collectors.toList());
     }
 
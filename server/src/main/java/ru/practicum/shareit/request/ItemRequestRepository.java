@@ -1,16 +1,27 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.VersionedRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>, VersionedRepository<ItemRequest> {
     List<ItemRequest> findByRequesterId(Long requesterId, Sort sort);
 
-    Page<ItemRequest> findAllByRequesterIdNot(Long requesterId, Pageable pageable);
+    Slice<ItemRequest> findAllByRequesterIdNot(Long requesterId, Pageable pageable);
 
+    /**
+     * Bumps the version of every request in one UPDATE. Unlike incrementVersion it doesn't depend on
+     * the requests staying in the persistence context until flush.
+     */
+    @Modifying
+    @Query("update ItemRequest r set r.version = r.version + 1 where r.id in ?1")
+    int incrementVersions(Collection<Long> requestIds);
 }
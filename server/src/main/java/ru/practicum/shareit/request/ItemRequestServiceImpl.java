@@ -6,27 +6,35 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.UserRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.groupingBy;
 
 
 @Service
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final UserLookup userLookup;
 
     @Autowired
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
-                                  UserRepository userRepository) {
+                                  ItemRepository itemRepository,
+                                  UserLookup userLookup) {
         this.itemRequestRepository = itemRequestRepository;
-        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.userLookup = userLookup;
     }
 
     @Override
@@ -34,12 +42,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestResponseDto addRequest(ItemRequestDto requestDto) {
         long userId = requestDto.getRequesterId();
 
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException(String.format(
-                        "User with id = %d doesn't exist", userId)));
-
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requestDto);
-        itemRequest.setRequester(user);
+        itemRequest.setRequester(userLookup.getReference(userId));
         itemRequest.setCreated(LocalDateTime.now());
 
         return ItemRequestMapper.toItemRequestResponseDto(
@@ -49,29 +53,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestResponseDto> getRequestsForUser(Long userId) {
-        throwIfUserNotExist(userId);
-        return ItemRequestMapper.toItemRequestDtoList(
-                itemRequestRepository.findByRequesterId(userId,
-                        Sort.by(Sort.Direction.DESC, "created")));
+        userLookup.requireExists(userId);
+        return toDtoListWithItems(itemRequestRepository.findByRequesterId(userId,
+                Sort.by(Sort.Direction.DESC, "created")));
     }
 
     @Override
     public List<ItemRequestResponseDto> getAllRequests(
             Long userId, Integer from, Integer size) {
-        throwIfUserNotExist(userId);
+        userLookup.requireExists(userId);
 
         List<ItemRequest> itemRequestsPaged = itemRequestRepository.findAllByRequesterIdNot(
                         userId, PageRequest.of(from / size, size,
                                 Sort.by(Sort.Direction.DESC, "created")))
                 .getContent();
 
-        return ItemRequestMapper.toItemRequestDtoList(itemRequestsPaged);
+        return toDtoListWithItems(itemRequestsPaged);
 
     }
 
     @Override
     public ItemRequestResponseDto getRequestById(Long userId, Long requestId) {
-        throwIfUserNotExist(userId);
+        userLookup.requireExists(userId);
 
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(
@@ -80,10 +83,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestResponseDto(itemRequest);
     }
 
-    private void throwIfUserNotExist(Long userID) {
-        if (!userRepository.existsById(userID)) {
-            throw new NotFoundException(String.format(
-                    "User with id = %d doesn't exist", userID));
+    private List<ItemRequestResponseDto> toDtoListWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
         }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<ItemView>> itemsByRequestId = itemRepository
+                .findByRequestIdInOrderByIdAsc(requestIds)
+                .stream()
+                .collect(groupingBy(ItemView::getRequestId));
+
+        return ItemRequestMapper.toItemRequestDtoList(itemRequests, itemsByRequestId);
     }
 }
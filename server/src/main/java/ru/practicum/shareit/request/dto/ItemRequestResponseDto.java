@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 
+@JsonIgnoreProperties("version")
 @Data
 @Builder
 public class ItemRequestResponseDto {
@@ -16,4 +18,5 @@ public class ItemRequestResponseDto {
     Long requesterId;
     LocalDateTime created;
     List<ItemDto> items;
+    long version;
 }
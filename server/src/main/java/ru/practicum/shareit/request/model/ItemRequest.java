@@ -20,15 +20,20 @@ import java.util.Objects;
 @Table(name = "requests", schema = "public")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private long id;
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
+    @ToString.Exclude
     private User requester;
     private LocalDateTime created;
 
+    @Version
+    private long version;
+
     @OneToMany(targetEntity = Item.class,
             mappedBy = "request",
             fetch = FetchType.LAZY)
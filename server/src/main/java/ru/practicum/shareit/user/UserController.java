@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -36,8 +37,11 @@ public class UserController {
     }
 
     @GetMapping("/{userID}")
-    public UserDto getUserById(@PathVariable long userID) {
-        return userService.getUserByID(userID);
+    public ResponseEntity<UserDto> getUserById(@PathVariable long userID) {
+        UserDto user = userService.getUserByID(userID);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(user.getVersion()))
+                .body(user);
     }
 
     @DeleteMapping("/{userID}")
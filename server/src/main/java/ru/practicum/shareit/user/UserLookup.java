@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+
+/**
+ * Validates user ids from the X-Sharer-User-Id header against a size- and TTL-bounded cache
+ * of known users, so most requests don't pay a SELECT for it.
+ * Only existing users are cached; unknown ids always go to the database.
+ */
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existingUsers;
+
+    @Autowired
+    public UserLookup(UserRepository userRepository, MeterRegistry meterRegistry,
+                      @Value("${shareit.user-cache.maximum-size}") long maximumSize,
+                      @Value("${shareit.user-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.existingUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existingUsers, "users");
+    }
+
+    public void requireExists(Long userId) {
+        if (existingUsers.get(userId, id -> userRepository.existsById(id) ? Boolean.TRUE : null) == null) {
+            throw new NotFoundException(String.format(
+                    "User with id = %d doesn't exist", userId));
+        }
+    }
+
+    /**
+     * An unloaded reference to an existing user, for setting associations without a SELECT.
+     */
+    public User getReference(Long userId) {
+        requireExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Drops the user from the cache once the current transaction commits.
+     */
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    existingUsers.invalidate(userId);
+                }
+            });
+        } else {
+            existingUsers.invalidate(userId);
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class UserMapper {
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
+                .version(user.getVersion())
                 .build();
     }
 
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.RetryOnConflict;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -14,10 +15,12 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserLookup userLookup) {
         this.userRepository = userRepository;
+        this.userLookup = userLookup;
     }
 
     @Override
@@ -37,6 +40,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @RetryOnConflict
     public UserDto updateUser(UserDto userDto) {
         long userID = userDto.getId();
         User user = userRepository.findById(userID)
@@ -73,6 +77,7 @@ public class UserServiceImpl implements UserService {
                 ));
 
         userRepository.deleteById(userID);
+        userLookup.evict(userID);
         return UserMapper.toUserDto(userToDelete);
     }
 }
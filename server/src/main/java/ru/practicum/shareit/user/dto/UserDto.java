@@ -1,12 +1,15 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Builder;
 import lombok.Value;
 
+@JsonIgnoreProperties("version")
 @Value
 @Builder(toBuilder = true)
 public class UserDto {
     Long id;
     String name;
     String email;
+    long version;
 }
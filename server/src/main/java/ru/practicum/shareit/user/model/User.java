@@ -16,13 +16,17 @@ import java.util.Objects;
         uniqueConstraints = @UniqueConstraint(columnNames = "email"))
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
 
     private String name;
 
     private String email;
 
+    @Version
+    private long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,20 @@
+-- bookings of a booker by state, ordered by start (BookingRepository.findByBookerId...)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+-- bookings of an item: owner listings join through items, last/next booking, overlap index warm-up
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+-- ItemRepository.findByOwnerIdOrderByIdAsc and owner joins from bookings
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+-- ItemRequest.items
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+-- CommentRepository.findCommentsByItemId / findByItemIn sorted by created
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC);
+
+-- ItemRequestRepository.findByRequesterId / findAllByRequesterIdNot sorted by created
+CREATE INDEX IF NOT EXISTS ix_requests_requester_created ON requests (requester_id, created DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC);
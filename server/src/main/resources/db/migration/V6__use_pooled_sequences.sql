@@ -0,0 +1,12 @@
+-- ids come from sequences allocated 50 at a time (pooled optimizer), which lets Hibernate batch inserts
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,157 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserLookup;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when a list endpoint goes back to loading associations row by row. Every page holds {@value PAGE}
+ * rows, so an N+1 shows up as at least {@value PAGE} extra statements; the budgets are the statements
+ * the endpoint needs regardless of page size. Users are checked beforehand, so the UserLookup cache
+ * doesn't add a SELECT.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class StatementBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int PAGE = 20;
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private UserLookup userLookup;
+
+    private Statistics statistics;
+    private String tag;
+    private User owner;
+    private User booker;
+    private User requester;
+    private Item item;
+    private ItemRequest request;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        tag = "budget" + RUN.incrementAndGet() + "x" + System.nanoTime();
+        owner = testData.user("owner");
+        booker = testData.user("booker");
+        requester = testData.user("requester");
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE; i++) {
+            ItemRequest itemRequest = testData.request(requester, "need a drill " + i,
+                    now.minusDays(2).plusMinutes(i));
+            Item saved = testData.item(owner, "drill " + tag, "cordless drill " + i, itemRequest);
+            itemSearchEngine.index(saved);
+            Booking savedBooking = testData.booking(saved, booker, now.minusDays(1).plusMinutes(i),
+                    now.minusHours(1), Status.APPROVED);
+            testData.comment(saved, booker, now.minusMinutes(i));
+            if (i == 0) {
+                item = saved;
+                request = itemRequest;
+                booking = savedBooking;
+            }
+        }
+
+        List.of(owner, booker, requester).forEach(user -> userLookup.requireExists(user.getId()));
+    }
+
+    @Test
+    void bookingsOfBooker() throws Exception {
+        assertStatements(1, get("/bookings").header(USER_ID_HEADER, booker.getId()));
+    }
+
+    @Test
+    void bookingsOfOwner() throws Exception {
+        assertStatements(1, get("/bookings/owner").header(USER_ID_HEADER, owner.getId()));
+    }
+
+    @Test
+    void bookingById() throws Exception {
+        assertStatements(1, get("/bookings/{bookingId}", booking.getId()).header(USER_ID_HEADER, booker.getId()));
+    }
+
+    @Test
+    void itemsOfOwner() throws Exception {
+        assertStatements(3, get("/items").header(USER_ID_HEADER, owner.getId()));
+    }
+
+    @Test
+    void itemById() throws Exception {
+        assertStatements(2, get("/items/{itemId}", item.getId()).header(USER_ID_HEADER, owner.getId()));
+    }
+
+    @Test
+    void itemSearch() throws Exception {
+        assertStatements(1, get("/items/search").param("text", tag).header(USER_ID_HEADER, booker.getId()));
+    }
+
+    @Test
+    void requestsOfRequester() throws Exception {
+        assertStatements(2, get("/requests").header(USER_ID_HEADER, requester.getId()));
+    }
+
+    @Test
+    void requestsOfUserWithoutRequestsSkipTheItemsQuery() throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get("/requests").header(USER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsOfOthers() throws Exception {
+        assertStatements(2, get("/requests/all").header(USER_ID_HEADER, booker.getId()));
+    }
+
+    @Test
+    void requestById() throws Exception {
+        assertStatements(2, get("/requests/{requestId}", request.getId()).header(USER_ID_HEADER, booker.getId()));
+    }
+
+    private void assertStatements(int budget, MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(budget);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saves the users, items, requests, bookings and comments tests start from; add it with
+ * {@code @Import(TestData.class)}. Every user gets an email of its own, so tests that share
+ * an application context and its database never collide on the unique constraint.
+ */
+@TestComponent
+public class TestData {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    @Autowired
+    public TestData(UserRepository userRepository,
+                    ItemRepository itemRepository,
+                    ItemRequestRepository itemRequestRepository,
+                    BookingRepository bookingRepository,
+                    CommentRepository commentRepository) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    public User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@user" + SEQUENCE.incrementAndGet() + "x" + System.nanoTime() + ".test")
+                .build());
+    }
+
+    public Item item(User owner, String name) {
+        return item(owner, name, "cordless", null);
+    }
+
+    public Item item(User owner, String name, String description, ItemRequest request) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+    }
+
+    public ItemRequest request(User requester, String description, LocalDateTime created) {
+        return itemRequestRepository.save(ItemRequest.builder()
+                .description(description)
+                .requester(requester)
+                .created(created)
+                .build());
+    }
+
+    public Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    public Comment comment(Item item, User author, LocalDateTime created) {
+        return commentRepository.save(Comment.builder()
+                .item(item)
+                .author(author)
+                .text("works fine")
+                .created(created)
+                .build());
+    }
+}
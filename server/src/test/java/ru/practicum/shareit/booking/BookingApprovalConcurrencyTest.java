@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.CustomValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Owners approving the same bookings from several tabs at once: the version checks and
+ * {@code @RetryOnConflict} must let exactly one approval through and turn the rest into
+ * "already approved", with every row's version bumped once.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestData testData;
+
+    private ExecutorService executor;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        owner = testData.user("owner");
+        booker = testData.user("booker");
+        item = testData.item(owner, "drill");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentApprovalsOfOneBookingApproveItOnce() throws Exception {
+        Booking booking = waitingBooking(1);
+        long itemVersion = itemRepository.findById(item.getId()).orElseThrow().getVersion();
+
+        List<Outcome> outcomes = race(() -> {
+            bookingService.approveBooking(owner.getId(), booking.getId(), true);
+            return Outcome.APPROVED;
+        });
+
+        assertThat(outcomes).filteredOn(Outcome.APPROVED::equals).hasSize(1);
+        assertThat(outcomes).filteredOn(Outcome.ALREADY_APPROVED::equals).hasSize(THREADS - 1);
+        Booking approved = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertThat(approved.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(approved.getVersion()).isEqualTo(booking.getVersion() + 1);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getVersion()).isEqualTo(itemVersion + 1);
+    }
+
+    @Test
+    void concurrentBatchApprovalsApproveEachBookingOnce() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            bookings.add(waitingBooking(i));
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        long itemVersion = itemRepository.findById(item.getId()).orElseThrow().getVersion();
+
+        List<Outcome> outcomes = race(() -> {
+            List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), ids, true);
+            return results.stream().allMatch(result -> result.getError() == null)
+                    ? Outcome.APPROVED
+                    : results.stream().allMatch(result -> result.getError() != null)
+                    ? Outcome.ALREADY_APPROVED
+                    : Outcome.PARTIAL;
+        });
+
+        assertThat(outcomes).filteredOn(Outcome.APPROVED::equals).hasSize(1);
+        assertThat(outcomes).filteredOn(Outcome.ALREADY_APPROVED::equals).hasSize(THREADS - 1);
+        for (Booking booking : bookings) {
+            Booking approved = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertThat(approved.getStatus()).isEqualTo(Status.APPROVED);
+            assertThat(approved.getVersion()).isEqualTo(booking.getVersion() + 1);
+        }
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getVersion()).isEqualTo(itemVersion + 1);
+    }
+
+    private List<Outcome> race(Callable<Outcome> approval) throws InterruptedException, ExecutionException {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                try {
+                    return approval.call();
+                } catch (CustomValidationException e) {
+                    return Outcome.ALREADY_APPROVED;
+                }
+            }));
+        }
+        assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+        start.countDown();
+
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private Booking waitingBooking(int day) {
+        LocalDateTime start = LocalDateTime.now().plusDays(day);
+        return testData.booking(item, booker, start, start.plusHours(2), Status.WAITING);
+    }
+
+    private enum Outcome {
+        APPROVED, ALREADY_APPROVED, PARTIAL
+    }
+}
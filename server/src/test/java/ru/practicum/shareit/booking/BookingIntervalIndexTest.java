@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.exception.CustomValidationException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final long ITEM_ID = 1L;
+    private static final int THREADS = 16;
+
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository);
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void adjacentPeriodsDontConflict() {
+        index.reserve(ITEM_ID, at(2), at(4));
+
+        assertThatCode(() -> index.reserve(ITEM_ID, at(4), at(6))).doesNotThrowAnyException();
+        assertThatCode(() -> index.reserve(ITEM_ID, at(0), at(2))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void periodsOverlappingByAnyAmountConflict() {
+        index.reserve(ITEM_ID, at(2), at(4));
+
+        assertRejected(at(3), at(5));
+        assertRejected(at(1), at(3));
+        assertRejected(at(2), at(4));
+        assertRejected(at(1), at(5));
+        assertRejected(base.plusHours(2).plusMinutes(30), base.plusHours(3));
+        assertRejected(at(0), base.plusHours(2).plusMinutes(1));
+    }
+
+    @Test
+    void otherItemsDontConflict() {
+        index.reserve(ITEM_ID, at(2), at(4));
+
+        assertThatCode(() -> index.reserve(ITEM_ID + 1, at(2), at(4))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void overlappingLegacyPeriodsAllCount() {
+        warmUp(period(1, 10), period(2, 3));
+
+        assertRejected(at(5), at(6));
+        assertRejected(at(9), at(11));
+        assertThatCode(() -> index.reserve(ITEM_ID, at(10), at(11))).doesNotThrowAnyException();
+        assertThatCode(() -> index.reserve(ITEM_ID, at(0), at(1))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void longLegacyPeriodFarBeforeStillConflicts() {
+        warmUp(period(0, 100), period(50, 51), period(60, 61), period(70, 71));
+
+        assertRejected(at(80), at(81));
+    }
+
+    @Test
+    void releasedPeriodCanBeReservedAgain() {
+        index.reserve(ITEM_ID, at(2), at(4));
+        index.release(ITEM_ID, at(2), at(4));
+
+        assertThatCode(() -> index.reserve(ITEM_ID, at(3), at(5))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void concurrentReservationsOfOnePeriodLetOneThrough() throws Exception {
+        List<Boolean> results = race(thread -> at(2));
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+    }
+
+    @Test
+    void concurrentReservationsOfAdjacentPeriodsAllSucceed() throws Exception {
+        List<Boolean> results = race(thread -> at(2 * thread));
+
+        assertThat(results).containsOnly(true);
+    }
+
+    private List<Boolean> race(StartOf startOf) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                LocalDateTime periodStart = startOf.of(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        index.reserve(ITEM_ID, periodStart, periodStart.plusHours(2));
+                        return true;
+                    } catch (CustomValidationException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp(BookingPeriod... periods) {
+        when(bookingRepository.findPeriodsByStatusInAndEndAfter(any(), any())).thenReturn(List.of(periods));
+        index.afterSingletonsInstantiated();
+    }
+
+    private void assertRejected(LocalDateTime start, LocalDateTime end) {
+        assertThatThrownBy(() -> index.reserve(ITEM_ID, start, end))
+                .isInstanceOf(CustomValidationException.class);
+    }
+
+    private LocalDateTime at(int hours) {
+        return base.plusHours(hours);
+    }
+
+    private BookingPeriod period(int startHours, int endHours) {
+        LocalDateTime start = at(startHours);
+        LocalDateTime end = at(endHours);
+        return new BookingPeriod() {
+            @Override
+            public Long getItemId() {
+                return ITEM_ID;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface StartOf {
+        LocalDateTime of(int thread);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+    private ItemRepository itemRepository;
+    private InMemoryItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        engine = new InMemoryItemSearchEngine(itemRepository);
+    }
+
+    @Test
+    void warmUpIndexesEveryItem() {
+        Item drill = item(1, "drill", 0);
+        Item saw = item(2, "saw", 0);
+        when(itemRepository.findAll()).thenReturn(List.of(drill, saw));
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(drill, saw));
+
+        engine.afterSingletonsInstantiated();
+
+        assertThat(engine.search("drill", 0, 10)).containsExactly(drill);
+        assertThat(engine.search("saw", 0, 10)).containsExactly(saw);
+    }
+
+    @Test
+    void olderSnapshotDoesntReplaceNewerEntry() {
+        Item renamed = item(1, "hammer", 3);
+        engine.index(renamed);
+        when(itemRepository.findAll()).thenReturn(List.of(item(1, "drill", 2)));
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(renamed));
+
+        engine.afterSingletonsInstantiated();
+
+        assertThat(engine.search("drill", 0, 10)).isEmpty();
+        assertThat(engine.search("hammer", 0, 10)).containsExactly(renamed);
+    }
+
+    @Test
+    void snapshotOfSameVersionKeepsTheIndexedEntry() {
+        Item indexed = item(1, "hammer", 2);
+        engine.index(indexed);
+        when(itemRepository.findAll()).thenReturn(List.of(item(1, "drill", 2)));
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(indexed));
+
+        engine.afterSingletonsInstantiated();
+
+        assertThat(engine.search("drill", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void updateReplacesEntryOfTheVersionItStartedFrom() {
+        engine.index(item(1, "drill", 2));
+        Item renamed = item(1, "hammer", 2);
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(renamed));
+
+        engine.index(renamed);
+
+        assertThat(engine.search("drill", 0, 10)).isEmpty();
+        assertThat(engine.search("hammer", 0, 10)).containsExactly(renamed);
+    }
+
+    private static Item item(long id, String name, long version) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("tool")
+                .available(true)
+                .version(version)
+                .build();
+    }
+}
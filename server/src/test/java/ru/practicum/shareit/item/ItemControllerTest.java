@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithLastAndNextBookingsAndCommentsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+class ItemControllerTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemService itemService;
+
+    @Test
+    void eTagChangesWithComments() throws Exception {
+        CommentResponseDto first = comment(1, "Ann");
+        String bare = eTagOf(item());
+        String commented = eTagOf(item(first));
+        String renamedAuthor = eTagOf(item(first.toBuilder().authorName("Anna").build()));
+        String twoComments = eTagOf(item(first, comment(2, "Bob")));
+
+        assertThat(List.of(bare, commented, renamedAuthor, twoComments)).doesNotHaveDuplicates();
+        assertThat(eTagOf(item(comment(1, "Ann")))).isEqualTo(commented);
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws Exception {
+        String eTag = eTagOf(item(comment(1, "Ann")));
+
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String eTagOf(ItemWithLastAndNextBookingsAndCommentsDto item) throws Exception {
+        when(itemService.getItemByID(1L, 1L)).thenReturn(item);
+        return mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    private static ItemWithLastAndNextBookingsAndCommentsDto item(CommentResponseDto... comments) {
+        return ItemWithLastAndNextBookingsAndCommentsDto.builder()
+                .id(1L)
+                .name("drill")
+                .description("cordless")
+                .available(true)
+                .comments(List.of(comments))
+                .version(3)
+                .build();
+    }
+
+    private static CommentResponseDto comment(long id, String authorName) {
+        return CommentResponseDto.builder()
+                .id(id)
+                .text("works")
+                .authorName(authorName)
+                .created(CREATED)
+                .build();
+    }
+}
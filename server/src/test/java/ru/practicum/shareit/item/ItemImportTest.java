@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "shareit.item-import.batch-size=2")
+@Import(TestData.class)
+class ItemImportTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestData testData;
+    @SpyBean
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        owner = testData.user("owner");
+        request = testData.request(testData.user("requester"), "need drills", LocalDateTime.now());
+    }
+
+    @Test
+    void importRetriesOnlyTheConflictingBatchAndKeepsEveryLine() throws Exception {
+        // the spied repository is a proxy, so the real call goes through the spy's delegating default answer
+        Answer<?> realCall = mockingDetails(itemRequestRepository).getMockCreationSettings().getDefaultAnswer();
+        doThrow(new ObjectOptimisticLockingFailureException(ItemRequest.class, request.getId()))
+                .doAnswer(realCall)
+                .when(itemRequestRepository).incrementVersions(anyCollection());
+        String ndjson = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> "{\"name\":\"drill " + i + "\",\"description\":\"cordless\","
+                        + "\"available\":true,\"requestId\":" + request.getId() + "}")
+                .collect(Collectors.joining("\n"));
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(),
+                new BufferedReader(new StringReader(ndjson)));
+
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+        List<String> names = itemRepository.findByOwnerIdOrderByIdAsc(owner.getId(), PageRequest.of(0, 10))
+                .map(ItemView::getName)
+                .getContent();
+        assertThat(names).containsExactly("drill 1", "drill 2", "drill 3", "drill 4", "drill 5");
+        // three batches, the first of them twice
+        verify(itemRequestRepository, times(4)).incrementVersions(anyCollection());
+        assertThat(itemRequestRepository.findById(request.getId()).orElseThrow().getVersion()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestData.class)
+class ItemRepositoryTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestData testData;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        owner = testData.user("owner");
+        booker = testData.user("booker");
+        item = testData.item(owner, "drill");
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void findWithLastAndNextBookingsReadsTheItemPageInOneStatement() {
+        LocalDateTime lastStart = now.minusDays(1);
+        booking(now.minusDays(3), Status.APPROVED);
+        booking(lastStart, Status.APPROVED);
+        Booking last = booking(lastStart, Status.APPROVED);
+        Booking next = booking(now.plusDays(1), Status.APPROVED);
+        booking(now.plusDays(2), Status.APPROVED);
+        booking(now.plusHours(1), Status.REJECTED);
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        List<ItemWithBookingView> rows = itemRepository.findWithLastAndNextBookings(
+                item.getId(), Status.APPROVED, now);
+        List<Long> bookingIds = rows.stream()
+                .map(row -> row.getBooking().getId())
+                .collect(Collectors.toList());
+
+        assertThat(bookingIds).containsExactlyInAnyOrder(last.getId(), next.getId());
+        assertThat(rows).allSatisfy(row -> assertThat(row.getItem().getName()).isEqualTo("drill"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findWithLastAndNextBookingsReturnsTheItemAloneWithoutBookings() {
+        booking(now.plusDays(1), Status.WAITING);
+        em.flush();
+        em.clear();
+
+        List<ItemWithBookingView> rows = itemRepository.findWithLastAndNextBookings(
+                item.getId(), Status.APPROVED, now);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getItem().getId()).isEqualTo(item.getId());
+        assertThat(rows.get(0).getBooking()).isNull();
+    }
+
+    @Test
+    void findWithLastAndNextBookingsReturnsNothingForUnknownItem() {
+        assertThat(itemRepository.findWithLastAndNextBookings(item.getId() + 1000, Status.APPROVED, now))
+                .isEmpty();
+    }
+
+    @Test
+    void findByRequestIdInLoadsTheItemsOfAllRequestsInOneStatement() {
+        ItemRequest first = request("need a drill");
+        ItemRequest second = request("need a saw");
+        ItemRequest unanswered = request("need a ladder");
+        Item firstAnswer = answer(first, "old drill");
+        Item secondAnswer = answer(first, "new drill");
+        Item saw = answer(second, "saw");
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        List<ItemView> items = itemRepository.findByRequestIdInOrderByIdAsc(
+                List.of(first.getId(), second.getId(), unanswered.getId()));
+
+        assertThat(items).extracting(ItemView::getId)
+                .containsExactly(firstAnswer.getId(), secondAnswer.getId(), saw.getId());
+        assertThat(items).extracting(ItemView::getRequestId)
+                .containsExactly(first.getId(), first.getId(), second.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByRequestIdInReturnsNothingForRequestsWithoutItems() {
+        ItemRequest unanswered = request("need a ladder");
+        em.flush();
+
+        assertThat(itemRepository.findByRequestIdInOrderByIdAsc(List.of(unanswered.getId()))).isEmpty();
+    }
+
+    private ItemRequest request(String description) {
+        return testData.request(booker, description, now);
+    }
+
+    private Item answer(ItemRequest request, String name) {
+        return testData.item(owner, name, "answer", request);
+    }
+
+    private Booking booking(LocalDateTime start, Status status) {
+        return testData.booking(item, booker, start, start.plusHours(2), status);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the SQL behind the hot repository queries on Postgres with the Flyway schema and checks each
+ * can use the index added for it. The tables are empty, so sequential scans are switched off: the test
+ * asserts an index is usable for the query, not what the planner picks for a given data size.
+ * Skipped when Docker isn't available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryIndexPlanTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("bookings of a booker",
+                        "select * from bookings b where b.booker_id = 1 "
+                                + "order by b.start_date desc, b.id desc limit 20",
+                        "ix_bookings_booker_start"),
+                Arguments.of("bookings of a booker after a cursor",
+                        "select * from bookings b where b.booker_id = 1 "
+                                + "and b.start_date <= timestamp '2030-01-01 10:00' "
+                                + "and (b.start_date < timestamp '2030-01-01 10:00' "
+                                + "or (b.start_date = timestamp '2030-01-01 10:00' and b.id < 100)) "
+                                + "order by b.start_date desc, b.id desc limit 20",
+                        "ix_bookings_booker_start"),
+                Arguments.of("bookings of a booker by status",
+                        "select * from bookings b where b.booker_id = 1 and b.status = 'WAITING' "
+                                + "order by b.start_date desc, b.id desc limit 20",
+                        "ix_bookings_booker_status_start"),
+                Arguments.of("finished bookings of an item by a booker",
+                        "select * from bookings b where b.booker_id = 1 and b.item_id = 2 "
+                                + "and b.end_date < timestamp '2030-01-01 10:00'",
+                        "ix_bookings_booker_item_end"),
+                Arguments.of("last booking of an item",
+                        "select max(b.start_date) from bookings b where b.item_id = 2 "
+                                + "and b.status = 'APPROVED' and b.start_date <= timestamp '2030-01-01 10:00'",
+                        "ix_bookings_item_status_start"),
+                Arguments.of("items of an owner",
+                        "select * from items i where i.owner_id = 1 order by i.id limit 20",
+                        "ix_items_owner"),
+                Arguments.of("items for a page of requests",
+                        "select * from items i where i.request_id in (1, 2, 3) order by i.id",
+                        "ix_items_request"),
+                Arguments.of("comments of an item",
+                        "select * from comments c where c.item_id = 2 order by c.created desc",
+                        "ix_comments_item_created"),
+                Arguments.of("requests of a requester",
+                        "select * from requests r where r.requester_id = 1 order by r.created desc",
+                        "ix_requests_requester_created"),
+                Arguments.of("requests of other users",
+                        "select * from requests r where r.requester_id <> 1 order by r.created desc limit 20",
+                        "ix_requests_created"));
+    }
+
+    @BeforeEach
+    void disableSequentialScans() {
+        entityManager.createNativeQuery("set enable_seqscan = off").executeUpdate();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void queryUsesIndex(String name, String sql, String index) {
+        @SuppressWarnings("unchecked")
+        List<Object> plan = entityManager.createNativeQuery("explain " + sql).getResultList();
+
+        assertThat(plan.stream().map(String::valueOf).collect(Collectors.joining("\n"))).contains(index);
+    }
+}